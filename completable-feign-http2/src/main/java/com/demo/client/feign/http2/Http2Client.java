@@ -0,0 +1,184 @@
+package com.demo.client.feign.http2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import com.demo.client.feign.completable.AsyncClient;
+import com.demo.client.feign.completable.StreamingBody;
+import com.demo.client.feign.completable.StreamingClient;
+import feign.Request;
+import feign.Response;
+
+public final class Http2Client implements StreamingClient, AsyncClient {
+
+    private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        RESTRICTED_HEADERS.addAll(Arrays.asList(
+                "Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+    }
+
+    private final HttpClient httpClient;
+
+    public Http2Client() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build());
+    }
+
+    public Http2Client(final Executor executor) {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build());
+    }
+
+    public Http2Client(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        return send(request, newRequest(request, options, publisher(request)));
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options,
+                            final StreamingBody body) throws IOException {
+        return send(request, newRequest(request, options, publisher(body)));
+    }
+
+    // completes on the HttpClient's executor; no thread waits for the response
+    @Override
+    public CompletableFuture<Response> executeAsync(final Request request, final Request.Options options,
+                                                    final StreamingBody body) {
+        final HttpRequest httpRequest;
+        try {
+            httpRequest = newRequest(request, options, body == null ? publisher(request) : publisher(body));
+        } catch (final IOException e) {
+            final CompletableFuture<Response> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofInputStream())
+                .handle((httpResponse, ex) -> {
+                    if (ex != null) {
+                        throw new CompletionException(translate(
+                                ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex));
+                    }
+                    return toResponse(request, httpResponse);
+                });
+    }
+
+    private Response send(final Request request, final HttpRequest httpRequest) throws IOException {
+        final HttpResponse<InputStream> httpResponse;
+        try {
+            httpResponse = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (final HttpTimeoutException e) {
+            throw (SocketTimeoutException) translate(e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+        return toResponse(request, httpResponse);
+    }
+
+    // feign, the adaptive timeouts and callers all recognise a read timeout as SocketTimeoutException
+    private static Throwable translate(final Throwable cause) {
+        if (cause instanceof HttpTimeoutException) {
+            final SocketTimeoutException timeout = new SocketTimeoutException(cause.getMessage());
+            timeout.initCause(cause);
+            return timeout;
+        }
+        return cause;
+    }
+
+    private static HttpRequest.BodyPublisher publisher(final Request request) {
+        final byte[] body = request.body();
+        return body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(body);
+    }
+
+    // files are read in chunks by the publisher as the stream window opens up;
+    // unknown lengths go out as chunked (HTTP/1.1) or unsized DATA frames (HTTP/2)
+    static HttpRequest.BodyPublisher publisher(final StreamingBody body) throws IOException {
+        if (body.path() != null) {
+            return HttpRequest.BodyPublishers.ofFile(body.path());
+        }
+        if (body.length() == 0) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        final HttpRequest.BodyPublisher stream = HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                return body.open();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return body.length() < 0 ? stream : HttpRequest.BodyPublishers.fromPublisher(stream, body.length());
+    }
+
+    HttpRequest newRequest(final Request request, final Request.Options options,
+                           final HttpRequest.BodyPublisher body) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(request.url()))
+                .method(request.httpMethod().name(), body);
+        // 0 means no timeout to feign, while HttpRequest rejects a zero duration
+        if (options.readTimeoutMillis() > 0) {
+            builder.timeout(Duration.ofMillis(options.readTimeoutMillis()));
+        }
+        for (final Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+            if (RESTRICTED_HEADERS.contains(header.getKey())) {
+                continue;
+            }
+            for (final String value : header.getValue()) {
+                builder.header(header.getKey(), value);
+            }
+        }
+        return builder.build();
+    }
+
+    static Response toResponse(final Request request, final HttpResponse<InputStream> httpResponse) {
+        final Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (final Map.Entry<String, List<String>> header : httpResponse.headers().map().entrySet()) {
+            // HTTP/2 pseudo headers such as ":status" are not meaningful to feign
+            if (!header.getKey().startsWith(":")) {
+                headers.put(header.getKey().toLowerCase(Locale.ENGLISH),
+                        Collections.unmodifiableList(header.getValue()));
+            }
+        }
+        final long length = httpResponse.headers().firstValueAsLong("Content-Length").orElse(-1L);
+        return Response.builder()
+                .status(httpResponse.statusCode())
+                .reason(null)
+                .headers(headers)
+                .body(httpResponse.body(), length < 0 || length > Integer.MAX_VALUE
+                        ? null : (int) length)
+                .request(request)
+                .build();
+    }
+}
@@ -0,0 +1,347 @@
+package com.demo.client.http2;
+
+import com.demo.client.feign.completable.CompletableFeign;
+import com.demo.client.feign.http2.Http2Client;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+import feign.Request;
+import feign.RequestLine;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class Http2ClientTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPost() throws Exception {
+        server.enqueue(new MockResponse().setBody("response data").addHeader("X-Test", "value"));
+        final TestInterface api = CompletableFeign.builder()
+                .client(new Http2Client())
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final Response response = api.post("request data");
+        assertEquals(200, response.status());
+        assertEquals("response data", Util.toString(response.body().asReader()));
+        assertEquals("value", response.headers().get("x-test").iterator().next());
+        assertEquals("request data", server.takeRequest().getBody().readString(UTF_8));
+    }
+
+    @Test
+    public void testFutureDoesNotHoldAThread() {
+        server.enqueue(new MockResponse().setBody("response data").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        // with a direct executor a blocking send would return only once the response is in
+        final TestInterface api = CompletableFeign.builder()
+                .client(new Http2Client())
+                .executor(Runnable::run)
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final CompletableFuture<String> future = api.get();
+        assertFalse(future.isDone());
+        assertEquals("response data", future.join());
+    }
+
+    @Test
+    public void testInterceptorCallsAnotherProxy() throws Exception {
+        server.enqueue(new MockResponse().setBody("token"));
+        server.enqueue(new MockResponse().setBody("response data").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        final TokenInterface tokens = CompletableFeign.builder()
+                .client(new Http2Client())
+                .target(TokenInterface.class, "http://localhost:" + server.getPort());
+        final TestInterface api = CompletableFeign.builder()
+                .client(new Http2Client())
+                .executor(Runnable::run)
+                .requestInterceptor(template -> template.header("Authorization", tokens.token()))
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final CompletableFuture<String> future = api.get();
+        // the outer call is still dispatched asynchronously
+        assertFalse(future.isDone());
+        assertEquals("response data", future.join());
+        assertEquals("/token", server.takeRequest().getPath());
+        assertEquals("token", server.takeRequest().getHeader("Authorization"));
+    }
+
+    @Test
+    public void testDecodesOnTheCallExecutor() {
+        server.enqueue(new MockResponse().setBody("response data"));
+        final ExecutorService callPool = Executors.newSingleThreadExecutor(
+                runnable -> new Thread(runnable, "test-call"));
+        try {
+            final List<String> decodeThreads = new CopyOnWriteArrayList<>();
+            final Decoder decoder = new Decoder.Default();
+            final TestInterface api = CompletableFeign.builder()
+                    .client(new Http2Client())
+                    .executor(callPool)
+                    .decoder((response, type) -> {
+                        decodeThreads.add(Thread.currentThread().getName());
+                        return decoder.decode(response, type);
+                    })
+                    .target(TestInterface.class, "http://localhost:" + server.getPort());
+            assertEquals("response data", api.get().join());
+            assertEquals(Collections.singletonList("test-call"), decodeThreads);
+        } finally {
+            callPool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCustomFutureFactoryIsUsed() {
+        server.enqueue(new MockResponse().setBody("response data"));
+        final AtomicInteger created = new AtomicInteger();
+        final TestInterface api = CompletableFeign.builder()
+                .client(new Http2Client())
+                .futureFactory((dispatch, method, args, executor) -> {
+                    created.incrementAndGet();
+                    return CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return dispatch.get(method).invoke(args);
+                        } catch (final Throwable e) {
+                            throw new CompletionException(e);
+                        }
+                    }, executor);
+                })
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("response data", api.get().join());
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void testZeroReadTimeoutMeansNone() {
+        server.enqueue(new MockResponse().setBody("response data"));
+        final TestInterface api = CompletableFeign.builder()
+                .client(new Http2Client())
+                .options(new Request.Options(1000, 0, true))
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("response data", api.get().join());
+    }
+
+    @Test
+    public void testMultiplexedOverTls() throws Exception {
+        final HeldCertificate certificate = new HeldCertificate.Builder()
+                .addSubjectAlternativeName(server.getHostName())
+                .build();
+        server.useHttps(new HandshakeCertificates.Builder()
+                .heldCertificate(certificate)
+                .build().sslSocketFactory(), false);
+        server.setProtocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        final int calls = 8;
+        for (int i = 0; i <= calls; i++) {
+            server.enqueue(new MockResponse().setBody("response data")
+                    .setHeadersDelay(100, TimeUnit.MILLISECONDS));
+        }
+        final RecordingHttpClient httpClient = new RecordingHttpClient(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .sslContext(new HandshakeCertificates.Builder()
+                        .addTrustedCertificate(certificate.certificate())
+                        .build().sslContext())
+                .build());
+        final TestInterface api = CompletableFeign.builder()
+                .client(new Http2Client(httpClient))
+                .target(TestInterface.class, server.url("/").toString());
+        // one call first, so the concurrent ones find the HTTP/2 connection pooled
+        assertEquals("response data", api.get().join());
+        final List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            futures.add(api.get());
+        }
+        for (final CompletableFuture<String> future : futures) {
+            assertEquals("response data", future.join());
+        }
+        assertEquals(calls + 1, httpClient.versions.size());
+        for (final HttpClient.Version version : httpClient.versions) {
+            assertEquals(HttpClient.Version.HTTP_2, version);
+        }
+        // every exchange shared one connection, each as its own stream
+        final Set<Integer> sequenceNumbers = new HashSet<>();
+        for (int i = 0; i <= calls; i++) {
+            sequenceNumbers.add(server.takeRequest().getSequenceNumber());
+        }
+        assertEquals(calls + 1, sequenceNumbers.size());
+    }
+
+    @Test
+    public void testStreamingBodies() throws Exception {
+        server.enqueue(new MockResponse().setBody("stored"));
+        server.enqueue(new MockResponse().setBody("stored"));
+        server.enqueue(new MockResponse().setBody("stored"));
+        final Path file = folder.newFile().toPath();
+        Files.write(file, "skip:file data".getBytes(UTF_8));
+        final TestInterface api = CompletableFeign.builder()
+                .client(new Http2Client())
+                .streamingBodies()
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("stored", api.uploadFile(file).join());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(5);
+            assertEquals("stored", api.uploadChannel(channel).join());
+            assertEquals(5, channel.position());
+        }
+        assertEquals("stored", api.uploadStream(new ByteArrayInputStream("stream data".getBytes(UTF_8))).join());
+        RecordedRequest request = server.takeRequest();
+        assertEquals("14", request.getHeader("Content-Length"));
+        assertEquals("skip:file data", request.getBody().readString(UTF_8));
+        request = server.takeRequest();
+        assertEquals("9", request.getHeader("Content-Length"));
+        assertEquals("file data", request.getBody().readString(UTF_8));
+        request = server.takeRequest();
+        assertNull(request.getHeader("Content-Length"));
+        assertEquals("stream data", request.getBody().readString(UTF_8));
+    }
+
+    interface TestInterface {
+
+        @RequestLine("GET /")
+        CompletableFuture<String> get();
+
+        @RequestLine("POST /")
+        CompletableFuture<String> uploadFile(Path file);
+
+        @RequestLine("POST /")
+        CompletableFuture<String> uploadChannel(FileChannel channel);
+
+        @RequestLine("POST /")
+        CompletableFuture<String> uploadStream(InputStream in);
+
+        @RequestLine("POST /")
+        Response post(final String data);
+    }
+
+    interface TokenInterface {
+
+        @RequestLine("GET /token")
+        String token();
+    }
+
+    // records the protocol each exchange was actually carried over
+    private static final class RecordingHttpClient extends HttpClient {
+
+        private final HttpClient delegate;
+        private final List<Version> versions = new CopyOnWriteArrayList<>();
+
+        RecordingHttpClient(final HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <T> HttpResponse<T> send(final HttpRequest request,
+                                        final HttpResponse.BodyHandler<T> handler)
+                throws IOException, InterruptedException {
+            final HttpResponse<T> response = delegate.send(request, handler);
+            versions.add(response.version());
+            return response;
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpRequest request,
+                                                                final HttpResponse.BodyHandler<T> handler) {
+            return delegate.sendAsync(request, handler).thenApply(response -> {
+                versions.add(response.version());
+                return response;
+            });
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+                final HttpRequest request, final HttpResponse.BodyHandler<T> handler,
+                final HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+            return delegate.sendAsync(request, handler, pushPromiseHandler).thenApply(response -> {
+                versions.add(response.version());
+                return response;
+            });
+        }
+
+        @Override
+        public Optional<CookieHandler> cookieHandler() {
+            return delegate.cookieHandler();
+        }
+
+        @Override
+        public Optional<Duration> connectTimeout() {
+            return delegate.connectTimeout();
+        }
+
+        @Override
+        public Redirect followRedirects() {
+            return delegate.followRedirects();
+        }
+
+        @Override
+        public Optional<ProxySelector> proxy() {
+            return delegate.proxy();
+        }
+
+        @Override
+        public SSLContext sslContext() {
+            return delegate.sslContext();
+        }
+
+        @Override
+        public SSLParameters sslParameters() {
+            return delegate.sslParameters();
+        }
+
+        @Override
+        public Optional<Authenticator> authenticator() {
+            return delegate.authenticator();
+        }
+
+        @Override
+        public Version version() {
+            return delegate.version();
+        }
+
+        @Override
+        public Optional<Executor> executor() {
+            return delegate.executor();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.demo.client.feign;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+public final class DynamicPropertySource implements FeignPropertySource {
+
+    private final FeignPropertySource parent;
+    private volatile Map<String, String> snapshot = Collections.emptyMap();
+
+    public DynamicPropertySource() {
+        this(null);
+    }
+
+    public DynamicPropertySource(final FeignPropertySource parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public String getProperty(final String key) {
+        final String value = snapshot.get(key);
+        return value != null || parent == null ? value : parent.getProperty(key);
+    }
+
+    @Override
+    public synchronized String setProperty(final String key, final String value) {
+        final Map<String, String> next = new HashMap<>(snapshot);
+        final String previous = value == null ? next.remove(key) : next.put(key, value);
+        snapshot = Collections.unmodifiableMap(next);
+        return previous;
+    }
+
+    public String removeProperty(final String key) {
+        return setProperty(key, null);
+    }
+
+    public synchronized void replaceAll(final Map<String, String> properties) {
+        snapshot = Collections.unmodifiableMap(new HashMap<>(properties));
+    }
+
+    public void replaceAll(final Properties properties) {
+        final Map<String, String> next = new HashMap<>();
+        for (final String key : properties.stringPropertyNames()) {
+            next.put(key, properties.getProperty(key));
+        }
+        replaceAll(next);
+    }
+}
@@ -4,7 +4,11 @@ import java.util.Locale;
 
 public enum FeignProperties {
 
-    TARGET_URL;
+    TARGET_URL,
+    CONNECT_TIMEOUT_MILLIS,
+    READ_TIMEOUT_MILLIS;
+
+    private static volatile FeignPropertySource source = FeignPropertySource.SYSTEM;
 
     private final String name;
 
@@ -12,19 +16,32 @@ public enum FeignProperties {
         this.name = name().toLowerCase(Locale.ENGLISH);
     }
 
+    public static FeignPropertySource source() {
+        return source;
+    }
+
+    public static void source(final FeignPropertySource propertySource) {
+        source = propertySource == null ? FeignPropertySource.SYSTEM : propertySource;
+    }
+
     public static String createPropertyKey(final Class<?> apiType, final String propertyName) {
         return apiType.getName().toLowerCase(Locale.ENGLISH) + '.' + propertyName;
     }
 
+    public String createPropertyKey(final Class<?> apiType) {
+        return createPropertyKey(apiType, name);
+    }
+
     public String getProperty(final Class<?> apiType) {
-        return System.getProperty(createPropertyKey(apiType, name));
+        return source.getProperty(createPropertyKey(apiType, name));
     }
 
     public String getProperty(final Class<?> apiType, final String def) {
-        return System.getProperty(createPropertyKey(apiType, name), def);
+        final String value = getProperty(apiType);
+        return value == null ? def : value;
     }
 
     public String setProperty(final Class<?> apiType, final String value) {
-        return System.setProperty(createPropertyKey(apiType, name), value);
+        return source.setProperty(createPropertyKey(apiType, name), value);
     }
 }
@@ -0,0 +1,21 @@
+package com.demo.client.feign;
+
+public interface FeignPropertySource {
+
+    FeignPropertySource SYSTEM = new FeignPropertySource() {
+
+        @Override
+        public String getProperty(final String key) {
+            return System.getProperty(key);
+        }
+
+        @Override
+        public String setProperty(final String key, final String value) {
+            return System.setProperty(key, value);
+        }
+    };
+
+    String getProperty(final String key);
+
+    String setProperty(final String key, final String value);
+}
@@ -0,0 +1,16 @@
+package com.demo.client.feign.completable;
+
+import java.util.concurrent.CompletableFuture;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+// A client that can send without holding a thread until the response arrives.
+// CompletableFeign dispatches future-returning methods through executeAsync;
+// synchronous methods still use execute. The body is null unless the call
+// carries a StreamingBody, in which case request.body() is empty.
+public interface AsyncClient extends Client {
+
+    CompletableFuture<Response> executeAsync(Request request, Request.Options options, StreamingBody body);
+}
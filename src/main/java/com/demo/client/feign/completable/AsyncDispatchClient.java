@@ -0,0 +1,71 @@
+package com.demo.client.feign.completable;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import feign.Client;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Request;
+import feign.Response;
+
+// Feign's method handler expects the response synchronously. For an async
+// dispatch the handler still builds the request (template, interceptors,
+// target), then this client starts the exchange and leaves the handler with a
+// Deferred carrying the pending response; feign passes runtime exceptions from
+// the client through untouched. The deferral names the dispatching client, so a
+// call made through another proxy while the request is built runs as usual.
+final class AsyncDispatchClient implements Client {
+
+    private static final ThreadLocal<AsyncDispatchClient> DEFER = new ThreadLocal<>();
+
+    private final AsyncClient async;
+    private final Client delegate;
+
+    AsyncDispatchClient(final AsyncClient async, final Client delegate) {
+        this.async = async;
+        this.delegate = delegate;
+    }
+
+    Object invoke(final MethodHandler handler, final Object[] args) throws Throwable {
+        final AsyncDispatchClient previous = DEFER.get();
+        DEFER.set(this);
+        try {
+            return handler.invoke(args);
+        } finally {
+            if (previous == null) {
+                DEFER.remove();
+            } else {
+                DEFER.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        if (DEFER.get() != this) {
+            return delegate.execute(request, options);
+        }
+        DEFER.remove();
+        throw new Deferred(request, async.executeAsync(request, options, StreamingEncoder.pending(request)));
+    }
+
+    static final class Deferred extends RuntimeException {
+
+        private final transient Request request;
+        private final transient CompletableFuture<Response> response;
+
+        Deferred(final Request request, final CompletableFuture<Response> response) {
+            super(null, null, false, false);
+            this.request = request;
+            this.response = response;
+        }
+
+        Request request() {
+            return request;
+        }
+
+        CompletableFuture<Response> response() {
+            return response;
+        }
+    }
+}
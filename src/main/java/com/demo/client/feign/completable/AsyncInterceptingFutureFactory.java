@@ -0,0 +1,96 @@
+package com.demo.client.feign.completable;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+final class AsyncInterceptingFutureFactory implements FutureMethodCallFactory {
+
+    private static final ThreadLocal<List<RequestInterceptor>> PREPARED = new ThreadLocal<>();
+
+    private final FutureMethodCallFactory delegate;
+    private final List<AsyncRequestInterceptor> interceptors;
+
+    AsyncInterceptingFutureFactory(final FutureMethodCallFactory delegate,
+                                   final List<AsyncRequestInterceptor> interceptors) {
+        this.delegate = delegate;
+        this.interceptors = interceptors;
+    }
+
+    RequestInterceptor bridge() {
+        return this::apply;
+    }
+
+    @Override
+    public Future<?> create(final Map<Method, MethodHandler> dispatch, final Method method,
+                            final Object[] args, final Executor executor) {
+        final CompletableFuture<?>[] stages = new CompletableFuture<?>[interceptors.size()];
+        boolean ready = true;
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = interceptors.get(i).prepare().toCompletableFuture();
+            ready &= stages[i].isDone() && !stages[i].isCompletedExceptionally();
+        }
+        if (ready) {
+            // common path: every interceptor answered from its cache
+            return delegate.create(prepared(dispatch, method, stages), method, args, executor);
+        }
+        return CompletableFuture.allOf(stages).thenCompose(ignored -> {
+            final Future<?> future = delegate.create(prepared(dispatch, method, stages), method, args, executor);
+            if (!(future instanceof CompletionStage)) {
+                throw new IllegalStateException("Intercepted calls require a CompletionStage, got " + future);
+            }
+            @SuppressWarnings("unchecked")
+            final CompletionStage<Object> stage = (CompletionStage<Object>) future;
+            return stage;
+        });
+    }
+
+    private static Map<Method, MethodHandler> prepared(final Map<Method, MethodHandler> dispatch,
+                                                       final Method method,
+                                                       final CompletableFuture<?>[] stages) {
+        final List<RequestInterceptor> mutations = new ArrayList<>(stages.length);
+        for (final CompletableFuture<?> stage : stages) {
+            mutations.add((RequestInterceptor) stage.join());
+        }
+        final MethodHandler handler = dispatch.get(method);
+        final MethodHandler intercepted = argv -> {
+            final List<RequestInterceptor> previous = PREPARED.get();
+            PREPARED.set(mutations);
+            try {
+                return handler.invoke(argv);
+            } finally {
+                if (previous == null) {
+                    PREPARED.remove();
+                } else {
+                    PREPARED.set(previous);
+                }
+            }
+        };
+        return Collections.singletonMap(method, intercepted);
+    }
+
+    // Runs on the thread executing the request; calls made without a prepared
+    // future (plain synchronous methods) wait for the interceptors here instead.
+    private void apply(final RequestTemplate template) {
+        final List<RequestInterceptor> mutations = PREPARED.get();
+        if (mutations != null) {
+            for (final RequestInterceptor mutation : mutations) {
+                mutation.apply(template);
+            }
+            return;
+        }
+        for (final AsyncRequestInterceptor interceptor : interceptors) {
+            interceptor.prepare().toCompletableFuture().join().apply(template);
+        }
+    }
+}
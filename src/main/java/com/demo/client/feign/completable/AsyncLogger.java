@@ -0,0 +1,228 @@
+package com.demo.client.feign.completable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public final class AsyncLogger extends Logger implements Closeable {
+
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+    // only a safety net: producers unpark an idle writer as soon as they publish
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Consumer<String> sink;
+    private final double sampleRate;
+    private final int maxBodyBytes;
+    private final AtomicReferenceArray<Event> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile long tail;
+    private volatile boolean closed;
+    private volatile boolean idle;
+
+    public AsyncLogger() {
+        this(System.err::println, 1.0, 4096, 1024);
+    }
+
+    public AsyncLogger(final Consumer<String> sink, final double sampleRate,
+                       final int maxBodyBytes, final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.sink = sink;
+        this.sampleRate = sampleRate;
+        this.maxBodyBytes = maxBodyBytes;
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(Math.max(1, size));
+        this.mask = slots.length() - 1;
+        this.writer = new Thread(this::drain, "feign-async-logger");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    @Override
+    protected void log(final String configKey, final String format, final Object... args) {
+        offer(new Event(configKey, format, args));
+    }
+
+    @Override
+    protected void logRequest(final String configKey, final Level logLevel, final Request request) {
+        final boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        SAMPLED.set(sampled);
+        if (!sampled) {
+            return;
+        }
+        log(configKey, "---> %s %s HTTP/1.1", request.httpMethod().name(), request.url());
+        if (logLevel.ordinal() >= Level.HEADERS.ordinal()) {
+            logHeaders(configKey, request.headers());
+            final byte[] body = request.body();
+            if (body != null && logLevel.ordinal() >= Level.FULL.ordinal()) {
+                log(configKey, "");
+                log(configKey, "%s", new Body(body, request.charset(), maxBodyBytes));
+            }
+            log(configKey, "---> END HTTP (%s-byte body)", body == null ? 0 : body.length);
+        }
+    }
+
+    @Override
+    protected Response logAndRebufferResponse(final String configKey, final Level logLevel,
+                                              final Response response, final long elapsedTime)
+            throws IOException {
+        if (SAMPLED.get() == Boolean.FALSE) {
+            return response;
+        }
+        final int status = response.status();
+        log(configKey, "<--- HTTP/1.1 %s%s (%sms)", status,
+                response.reason() == null ? "" : " " + response.reason(), elapsedTime);
+        if (logLevel.ordinal() < Level.HEADERS.ordinal()) {
+            return response;
+        }
+        logHeaders(configKey, response.headers());
+        if (response.body() == null || status == 204 || status == 205) {
+            log(configKey, "<--- END HTTP (%s-byte body)", 0);
+            return response;
+        }
+        final byte[] body = Util.toByteArray(response.body().asInputStream());
+        if (logLevel.ordinal() >= Level.FULL.ordinal() && body.length > 0) {
+            log(configKey, "");
+            log(configKey, "%s", new Body(body, UTF_8, maxBodyBytes));
+        }
+        log(configKey, "<--- END HTTP (%s-byte body)", body.length);
+        return response.toBuilder().body(body).build();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void logHeaders(final String configKey, final Map<String, Collection<String>> headers) {
+        for (final Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+            for (final String value : header.getValue()) {
+                log(configKey, "%s: %s", header.getKey(), value);
+            }
+        }
+    }
+
+    // Multi-producer, single-consumer: producers claim a sequence with a CAS and
+    // publish into its slot, the writer thread clears the slot before moving on.
+    // The slot is published with a volatile store so that a producer either sees
+    // the writer going idle or the writer sees the event before it parks.
+    private void offer(final Event event) {
+        for (;;) {
+            final long sequence = head.get();
+            if (closed || sequence - tail >= slots.length()) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (head.compareAndSet(sequence, sequence + 1)) {
+                slots.set((int) sequence & mask, event);
+                if (idle) {
+                    LockSupport.unpark(writer);
+                }
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        long reportedDrops = 0;
+        for (;;) {
+            final int index = (int) tail & mask;
+            final Event event = slots.get(index);
+            if (event != null) {
+                slots.lazySet(index, null);
+                tail = tail + 1;
+                write(event);
+                continue;
+            }
+            final long drops = dropped.get();
+            if (drops != reportedDrops) {
+                sink.accept("[AsyncLogger] dropped " + (drops - reportedDrops) + " log events");
+                reportedDrops = drops;
+            }
+            if (closed && tail == head.get()) {
+                return;
+            }
+            idle = true;
+            if (slots.get((int) tail & mask) == null && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+    }
+
+    private void write(final Event event) {
+        try {
+            sink.accept(String.format(methodTag(event.configKey) + event.format, event.args));
+        } catch (final RuntimeException e) {
+            // a broken sink must not kill the writer thread
+        }
+    }
+
+    private static final class Event {
+
+        private final String configKey;
+        private final String format;
+        private final Object[] args;
+
+        Event(final String configKey, final String format, final Object[] args) {
+            this.configKey = configKey;
+            this.format = format;
+            this.args = args;
+        }
+    }
+
+    // Decoded on the writer thread so the caller only keeps a reference to the bytes.
+    private static final class Body {
+
+        private final byte[] data;
+        private final Charset charset;
+        private final int maxBytes;
+
+        Body(final byte[] data, final Charset charset, final int maxBytes) {
+            this.data = data;
+            this.charset = charset;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public String toString() {
+            if (charset == null) {
+                return "Binary data";
+            }
+            if (data.length <= maxBytes) {
+                return new String(data, charset);
+            }
+            return new String(data, 0, maxBytes, charset)
+                    + "... (" + (data.length - maxBytes) + " more bytes)";
+        }
+    }
+}
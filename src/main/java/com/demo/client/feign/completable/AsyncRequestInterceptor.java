@@ -0,0 +1,11 @@
+package com.demo.client.feign.completable;
+
+import java.util.concurrent.CompletionStage;
+
+import feign.RequestInterceptor;
+
+@FunctionalInterface
+public interface AsyncRequestInterceptor {
+
+    CompletionStage<? extends RequestInterceptor> prepare();
+}
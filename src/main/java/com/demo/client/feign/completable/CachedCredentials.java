@@ -0,0 +1,155 @@
+package com.demo.client.feign.completable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import feign.RequestInterceptor;
+
+public final class CachedCredentials<T> {
+
+    private final Supplier<? extends CompletionStage<Credential<T>>> fetcher;
+    private final long refreshAheadMillis;
+    private final AtomicReference<CompletableFuture<Credential<T>>> refreshing = new AtomicReference<>();
+    private volatile Credential<T> current;
+
+    public CachedCredentials(final Supplier<? extends CompletionStage<Credential<T>>> fetcher,
+                             final long refreshAhead, final TimeUnit unit) {
+        this.fetcher = fetcher;
+        this.refreshAheadMillis = unit.toMillis(refreshAhead);
+    }
+
+    public CompletableFuture<T> get() {
+        final Credential<T> credential = valid();
+        return credential != null ? credential.future : refresh().thenApply(Credential::value);
+    }
+
+    public AsyncRequestInterceptor header(final String name, final Function<? super T, String> format) {
+        return new HeaderInterceptor(name, format);
+    }
+
+    public AsyncRequestInterceptor bearer() {
+        return header("Authorization", token -> "Bearer " + token);
+    }
+
+    public CompletableFuture<Credential<T>> refresh() {
+        for (;;) {
+            final CompletableFuture<Credential<T>> inFlight = refreshing.get();
+            if (inFlight != null) {
+                return inFlight;
+            }
+            final CompletableFuture<Credential<T>> created = new CompletableFuture<>();
+            if (refreshing.compareAndSet(null, created)) {
+                fetch(created);
+                return created;
+            }
+        }
+    }
+
+    private void fetch(final CompletableFuture<Credential<T>> created) {
+        final CompletionStage<Credential<T>> fetched;
+        try {
+            fetched = fetcher.get();
+        } catch (final RuntimeException e) {
+            refreshing.compareAndSet(created, null);
+            created.completeExceptionally(e);
+            return;
+        }
+        fetched.whenComplete((credential, ex) -> {
+            if (ex == null) {
+                current = credential;
+            }
+            refreshing.compareAndSet(created, null);
+            if (ex == null) {
+                created.complete(credential);
+            } else {
+                created.completeExceptionally(ex);
+            }
+        });
+    }
+
+    // Returns the cached credential while it is usable, starting a refresh once it is about to expire.
+    private Credential<T> valid() {
+        final Credential<T> credential = current;
+        if (credential == null) {
+            return null;
+        }
+        final long now = System.currentTimeMillis();
+        if (now >= credential.expiresAtMillis) {
+            return null;
+        }
+        if (now >= credential.expiresAtMillis - refreshAheadMillis) {
+            refresh();
+        }
+        return credential;
+    }
+
+    public static final class Credential<T> {
+
+        private final T value;
+        private final long expiresAtMillis;
+        private final CompletableFuture<T> future;
+
+        public Credential(final T value, final long expiresIn, final TimeUnit unit) {
+            this.value = value;
+            this.expiresAtMillis = System.currentTimeMillis() + unit.toMillis(expiresIn);
+            this.future = CompletableFuture.completedFuture(value);
+        }
+
+        public T value() {
+            return value;
+        }
+
+        public long expiresAtMillis() {
+            return expiresAtMillis;
+        }
+    }
+
+    private final class HeaderInterceptor implements AsyncRequestInterceptor {
+
+        private final String name;
+        private final Function<? super T, String> format;
+        private volatile Prepared prepared;
+
+        HeaderInterceptor(final String name, final Function<? super T, String> format) {
+            this.name = name;
+            this.format = format;
+        }
+
+        @Override
+        public CompletionStage<RequestInterceptor> prepare() {
+            final Credential<T> credential = valid();
+            if (credential == null) {
+                return refresh().thenApply(this::mutation);
+            }
+            Prepared last = prepared;
+            if (last == null || last.credential != credential) {
+                last = new Prepared(credential, CompletableFuture.completedFuture(mutation(credential)));
+                prepared = last;
+            }
+            return last.mutation;
+        }
+
+        private RequestInterceptor mutation(final Credential<T> credential) {
+            final String value = format.apply(credential.value);
+            return template -> {
+                template.header(name);
+                template.header(name, value);
+            };
+        }
+
+        private final class Prepared {
+
+            private final Credential<T> credential;
+            private final CompletableFuture<RequestInterceptor> mutation;
+
+            Prepared(final Credential<T> credential, final CompletableFuture<RequestInterceptor> mutation) {
+                this.credential = credential;
+                this.mutation = mutation;
+            }
+        }
+    }
+}
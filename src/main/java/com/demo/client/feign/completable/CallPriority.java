@@ -0,0 +1,17 @@
+package com.demo.client.feign.completable;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CallPriority {
+
+    int HIGH = 10;
+    int NORMAL = 0;
+    int LOW = -10;
+
+    int value();
+}
@@ -0,0 +1,25 @@
+package com.demo.client.feign.completable;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CallTimeout {
+
+    int connectMillis() default -1;
+
+    int readMillis() default -1;
+
+    boolean adaptive() default false;
+
+    double percentile() default 0.99;
+
+    double headroom() default 2.0;
+
+    int floorMillis() default 100;
+
+    int ceilingMillis() default 60_000;
+}
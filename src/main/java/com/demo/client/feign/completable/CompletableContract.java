@@ -1,32 +1,68 @@
 package com.demo.client.feign.completable;
 
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
 import feign.Contract;
+import feign.Feign;
 import feign.MethodMetadata;
+import feign.Response;
 import feign.Util;
 
 final class CompletableContract implements Contract {
 
     private final Contract delegate;
+    private final boolean staged;
+    private final Map<String, Type> decodeTypes = new ConcurrentHashMap<>();
+    private final Map<Method, String> configKeys = new ConcurrentHashMap<>();
 
     CompletableContract(final Contract delegate) {
+        this(delegate, false);
+    }
+
+    CompletableContract(final Contract delegate, final boolean staged) {
         this.delegate = delegate;
+        this.staged = staged;
+    }
+
+    Type decodeType(final String configKey) {
+        return decodeTypes.get(configKey);
+    }
+
+    // Feign keys a method by the target type, which differs from the declaring
+    // class for methods inherited from a parent interface
+    String configKey(final Method method) {
+        final String configKey = configKeys.get(method);
+        return configKey != null ? configKey : Feign.configKey(method.getDeclaringClass(), method);
     }
 
     @Override
     public List<MethodMetadata> parseAndValidateMetadata(final Class<?> targetType) {
         final List<MethodMetadata> metadataList = delegate.parseAndValidateMetadata(targetType);
+        final Map<String, Method> methods = new HashMap<>();
+        for (final Method method : targetType.getMethods()) {
+            methods.put(Feign.configKey(targetType, method), method);
+        }
         for (final MethodMetadata metadata : metadataList) {
+            final Method method = methods.get(metadata.configKey());
+            if (method != null) {
+                configKeys.put(method, metadata.configKey());
+            }
             final Type type = metadata.returnType();
             if (type instanceof ParameterizedType) {
                 final ParameterizedType parameterizedType = ParameterizedType.class.cast(type);
                 final Class<?> rawType = (Class<?>) parameterizedType.getRawType();
                 if (Future.class.isAssignableFrom(rawType)) {
-                    metadata.returnType(Util.resolveLastTypeParameter(type, rawType));
+                    final Type decodeType = Util.resolveLastTypeParameter(type, rawType);
+                    decodeTypes.put(metadata.configKey(), decodeType);
+                    // staged calls get the raw response back and decode it on their own executor
+                    metadata.returnType(staged ? Response.class : decodeType);
                 }
             }
         }
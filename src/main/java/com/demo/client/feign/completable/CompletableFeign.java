@@ -1,11 +1,19 @@
 package com.demo.client.feign.completable;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import com.demo.client.feign.CodecProvider;
-import com.demo.client.feign.FeignProperties;
 import feign.Client;
 import feign.Contract;
 import feign.Feign;
@@ -14,7 +22,6 @@ import feign.Logger;
 import feign.Request;
 import feign.RequestInterceptor;
 import feign.Retryer;
-import feign.Target;
 import feign.codec.Decoder;
 import feign.codec.Encoder;
 import feign.codec.ErrorDecoder;
@@ -29,9 +36,9 @@ public final class CompletableFeign {
 
     public static final class Builder extends Feign.Builder {
 
-        private Contract contract = new Contract.Default();
-        private FutureMethodCallFactory futureFactory = (dispatch, method, args, executor) ->
-                CompletableFuture.supplyAsync(() -> {
+        private static final FutureMethodCallFactory DEFAULT_FUTURE_FACTORY = (dispatch, method, args, executor) -> {
+            try {
+                return CompletableFuture.supplyAsync(() -> {
                     try {
                         return dispatch.get(method).invoke(args);
                     } catch (final RuntimeException re) {
@@ -40,8 +47,35 @@ public final class CompletableFeign {
                         throw new IllegalStateException("Impossible to reach here!", cause);
                     }
                 }, executor);
+            } catch (final RejectedExecutionException e) {
+                // a shed or refused call fails its future, as it does in staged mode
+                final CompletableFuture<Object> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(new CompletionException(e));
+                return rejected;
+            }
+        };
+
+        private Contract contract = new Contract.Default();
+        private FutureMethodCallFactory futureFactory = null;
         private Executor executor = ForkJoinPool.commonPool();
         private InvocationHandlerFactory invocationHandlerFactory = null;
+        private ErrorDecoder errorDecoder = new ErrorDecoder.Default();
+        private RateLimiter rateLimiter = null;
+        private final Map<String, RateLimiter> methodRateLimiters = new HashMap<>();
+        private ScheduledExecutorService scheduler = null;
+        private final List<RequestInterceptor> requestInterceptors = new ArrayList<>();
+        private final List<AsyncRequestInterceptor> asyncRequestInterceptors = new ArrayList<>();
+        private Client client = null;
+        private MethodTimeouts timeouts = new MethodTimeouts();
+        private Encoder encoder = new Encoder.Default();
+        private Decoder decoder = new Decoder.Default();
+        private boolean decode404 = false;
+        private Retryer retryer = new Retryer.Default();
+        private boolean staged = false;
+        private Executor decodeExecutor = null;
+        private Executor completionExecutor = null;
+        private StageListener stageListener = (stage, configKey, queuedNanos, runNanos, failure) -> {};
+        private boolean streaming = false;
 
         @Override
         public Builder contract(final Contract contract) {
@@ -59,6 +93,54 @@ public final class CompletableFeign {
             return this;
         }
 
+        public Builder rateLimiter(final RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        public Builder rateLimiter(final String configKey, final RateLimiter rateLimiter) {
+            this.methodRateLimiters.put(configKey, rateLimiter);
+            return this;
+        }
+
+        public Builder scheduler(final ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public Builder stagedDecoding() {
+            this.staged = true;
+            return this;
+        }
+
+        public Builder decodeExecutor(final Executor decodeExecutor) {
+            this.staged = true;
+            this.decodeExecutor = decodeExecutor;
+            return this;
+        }
+
+        public Builder completionExecutor(final Executor completionExecutor) {
+            this.completionExecutor = completionExecutor;
+            return this;
+        }
+
+        public Builder stageListener(final StageListener stageListener) {
+            this.stageListener = stageListener;
+            return this;
+        }
+
+        public Builder streamingBodies() {
+            this.streaming = true;
+            return this;
+        }
+
+        public Builder adaptiveTimeouts(final double percentile, final double headroom,
+                                        final long floor, final long ceiling, final TimeUnit unit) {
+            this.timeouts = new MethodTimeouts(true, percentile, headroom,
+                    (int) unit.toMillis(floor), (int) unit.toMillis(ceiling));
+            return this;
+        }
+
         @Override
         public Builder invocationHandlerFactory(
                 final InvocationHandlerFactory invocationHandlerFactory) {
@@ -74,12 +156,13 @@ public final class CompletableFeign {
 
         @Override
         public Builder client(final Client client) {
-            super.client(client);
+            this.client = client;
             return this;
         }
 
         @Override
         public Builder retryer(final Retryer retryer) {
+            this.retryer = retryer;
             super.retryer(retryer);
             return this;
         }
@@ -92,30 +175,30 @@ public final class CompletableFeign {
 
         @Override
         public Builder encoder(final Encoder encoder) {
+            this.encoder = encoder;
             super.encoder(encoder);
             return this;
         }
 
         @Override
         public Builder decoder(final Decoder decoder) {
+            this.decoder = decoder;
             super.decoder(decoder);
             return this;
         }
 
         public <C extends Encoder & Decoder> Builder coder(final C coder) {
-            super.encoder(coder);
-            super.decoder(coder);
+            encoder(coder);
+            decoder(coder);
             return this;
         }
 
         public Builder encoder(final Class<? extends Encoder> encoderClass) {
-            super.encoder(CodecProvider.getEncoder(encoderClass));
-            return this;
+            return encoder(CodecProvider.getEncoder(encoderClass));
         }
 
         public Builder decoder(final Class<? extends Decoder> decoderClass) {
-            super.decoder(CodecProvider.getDecoder(decoderClass));
-            return this;
+            return decoder(CodecProvider.getDecoder(decoderClass));
         }
 
         public <C extends Encoder & Decoder> Builder coder(final Class<C> coderClass) {
@@ -125,13 +208,14 @@ public final class CompletableFeign {
 
         @Override
         public Builder decode404() {
+            this.decode404 = true;
             super.decode404();
             return this;
         }
 
         @Override
         public Builder errorDecoder(final ErrorDecoder errorDecoder) {
-            super.errorDecoder(errorDecoder);
+            this.errorDecoder = errorDecoder;
             return this;
         }
 
@@ -143,28 +227,107 @@ public final class CompletableFeign {
 
         @Override
         public Builder requestInterceptor(final RequestInterceptor requestInterceptor) {
-            super.requestInterceptor(requestInterceptor);
+            this.requestInterceptors.add(requestInterceptor);
             return this;
         }
 
         @Override
         public Builder requestInterceptors(final Iterable<RequestInterceptor> requestInterceptors) {
-            super.requestInterceptors(requestInterceptors);
+            this.requestInterceptors.clear();
+            for (final RequestInterceptor requestInterceptor : requestInterceptors) {
+                this.requestInterceptors.add(requestInterceptor);
+            }
+            return this;
+        }
+
+        public Builder asyncRequestInterceptor(final AsyncRequestInterceptor asyncRequestInterceptor) {
+            this.asyncRequestInterceptors.add(asyncRequestInterceptor);
             return this;
         }
 
         @Override
         public Feign build() {
-            super.invocationHandlerFactory(invocationHandlerFactory == null ? (target, dispatch) ->
-                    new CompletableInvocationHandler(target, dispatch, futureFactory, executor)
-                    : invocationHandlerFactory);
-            super.contract(new CompletableContract(contract));
-            return super.build();
+            return build(null);
         }
 
         public <T> T target(final Class<T> apiType) {
-            return target(new Target.HardCodedTarget<>(
-                    apiType, FeignProperties.TARGET_URL.getProperty(apiType)));
+            return build(apiType).newInstance(new DynamicTarget<>(apiType));
+        }
+
+        // apiType is set for targets whose timeouts follow FeignProperties at runtime.
+        // The result is assembled in the inherited Feign.Builder fields, so concurrent
+        // builds are serialized; each Feign keeps what it captured in super.build().
+        private synchronized Feign build(final Class<?> apiType) {
+            // an async client completes calls itself through the staged pipeline; with a
+            // custom handler or future factory it is used as a plain, blocking client
+            final boolean async = client instanceof AsyncClient
+                    && futureFactory == null && invocationHandlerFactory == null;
+            // staged calls get the raw response from feign's handler, which only the
+            // built-in invocation handler and staged factory know how to decode
+            if (staged && (futureFactory != null || invocationHandlerFactory != null)) {
+                throw new IllegalStateException(
+                        "Staged decoding can not be combined with a custom futureFactory or invocationHandlerFactory");
+            }
+            final boolean callStaged = staged || async;
+            final CompletableContract callContract = new CompletableContract(contract, callStaged);
+            ErrorDecoder callErrorDecoder = errorDecoder;
+            Function<String, RateLimiter> limiters = null;
+            if (rateLimiter != null || !methodRateLimiters.isEmpty()) {
+                final RateLimiter sharedLimiter = rateLimiter;
+                final Map<String, RateLimiter> methodLimiters = new HashMap<>(methodRateLimiters);
+                limiters = configKey -> methodLimiters.getOrDefault(configKey, sharedLimiter);
+                callErrorDecoder = new RateLimitingErrorDecoder(callErrorDecoder, limiters);
+            }
+            Client callClient = client;
+            if (streaming) {
+                callClient = new StreamingBodyClient(
+                        callClient == null ? new UrlConnectionStreamingClient() : callClient);
+            }
+            if (callClient == null) {
+                callClient = new Client.Default(null, null);
+            }
+            final AsyncDispatchClient asyncDispatch = async
+                    ? new AsyncDispatchClient((AsyncClient) client, callClient) : null;
+            if (asyncDispatch != null) {
+                callClient = asyncDispatch;
+            }
+            // only explicit staging moves decoding off the call executor
+            FutureMethodCallFactory callFactory = callStaged
+                    ? new StagedFutureMethodCallFactory(callContract, decoder, callErrorDecoder, decode404, retryer,
+                    asyncDispatch, staged ? decodeExecutor : executor, completionExecutor, stageListener)
+                    : futureFactory == null ? DEFAULT_FUTURE_FACTORY : futureFactory;
+            final List<RequestInterceptor> callInterceptors = new ArrayList<>(requestInterceptors);
+            if (!asyncRequestInterceptors.isEmpty()) {
+                final AsyncInterceptingFutureFactory intercepting = new AsyncInterceptingFutureFactory(
+                        callFactory, new ArrayList<>(asyncRequestInterceptors));
+                callFactory = intercepting;
+                callInterceptors.add(intercepting.bridge());
+            }
+            if (limiters != null) {
+                callFactory = new RateLimitingFutureFactory(callFactory, callContract, limiters, scheduler);
+            }
+            final FutureMethodCallFactory finalCallFactory = callFactory;
+            final Executor callExecutor = executor;
+            final MethodTimeouts callTimeouts = timeouts;
+            final InvocationHandlerFactory handlerFactory = invocationHandlerFactory == null
+                    ? (target, dispatch) -> new CompletableInvocationHandler(target,
+                    callTimeouts.decorate(dispatch), finalCallFactory, callExecutor)
+                    : invocationHandlerFactory;
+            if (streaming) {
+                // the streaming body must not outlive its call, whichever handler factory is used
+                super.invocationHandlerFactory((target, dispatch) ->
+                        handlerFactory.create(target, StreamingEncoder.decorate(dispatch)));
+                super.encoder(new StreamingEncoder(encoder));
+                callInterceptors.add(StreamingEncoder.BINDER);
+            } else {
+                super.invocationHandlerFactory(handlerFactory);
+            }
+            callClient = new TimeoutClient(callClient);
+            super.client(apiType == null ? callClient : new DynamicOptionsClient(callClient, apiType));
+            super.errorDecoder(callErrorDecoder);
+            super.requestInterceptors(callInterceptors);
+            super.contract(callContract);
+            return super.build();
         }
     }
 }
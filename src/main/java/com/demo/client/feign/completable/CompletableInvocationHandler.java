@@ -4,6 +4,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 
@@ -16,6 +17,7 @@ public final class CompletableInvocationHandler implements InvocationHandler {
     private final Map<Method, MethodHandler> dispatch;
     private final FutureMethodCallFactory futureFactory;
     private final Executor executor;
+    private final Map<Method, Executor> methodExecutors = new ConcurrentHashMap<>();
 
     public CompletableInvocationHandler(final Target<?> target, final Map<Method, MethodHandler> dispatch,
                                         final FutureMethodCallFactory futureFactory, final Executor executor) {
@@ -32,7 +34,7 @@ public final class CompletableInvocationHandler implements InvocationHandler {
             return dispatch.get(method).invoke(args);
         }
         if (Future.class.isAssignableFrom(method.getReturnType())) {
-            return futureFactory.create(dispatch, method, args, executor);
+            return futureFactory.create(dispatch, method, args, executorFor(method));
         }
         if (method.getDeclaringClass() == Object.class) {
             if (method.getName().equals("equals")) {
@@ -61,6 +63,23 @@ public final class CompletableInvocationHandler implements InvocationHandler {
         return dispatch.get(method).invoke(args);
     }
 
+    // Resolved here, on the calling thread: rate limiting and async interceptors
+    // may submit the call later from their own threads.
+    private Executor executorFor(final Method method) {
+        if (!(executor instanceof PriorityExecutor)) {
+            return executor;
+        }
+        final PriorityExecutor priorityExecutor = (PriorityExecutor) executor;
+        final Integer override = PriorityExecutor.currentPriority();
+        if (override != null) {
+            return priorityExecutor.fixedPriority(override);
+        }
+        return methodExecutors.computeIfAbsent(method, key -> {
+            final CallPriority priority = key.getAnnotation(CallPriority.class);
+            return priorityExecutor.fixedPriority(priority == null ? CallPriority.NORMAL : priority.value());
+        });
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (this == obj) {
@@ -0,0 +1,87 @@
+package com.demo.client.feign.completable;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.demo.client.feign.FeignProperties;
+import com.demo.client.feign.FeignPropertySource;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+final class DynamicOptionsClient implements Client {
+
+    private static final Logger LOGGER = Logger.getLogger(DynamicOptionsClient.class.getName());
+
+    private final Client delegate;
+    private final String connectTimeoutKey;
+    private final String readTimeoutKey;
+    private volatile Snapshot snapshot;
+
+    DynamicOptionsClient(final Client delegate, final Class<?> apiType) {
+        this.delegate = delegate;
+        this.connectTimeoutKey = FeignProperties.CONNECT_TIMEOUT_MILLIS.createPropertyKey(apiType);
+        this.readTimeoutKey = FeignProperties.READ_TIMEOUT_MILLIS.createPropertyKey(apiType);
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        return delegate.execute(request, resolve(options));
+    }
+
+    private Request.Options resolve(final Request.Options options) {
+        final FeignPropertySource source = FeignProperties.source();
+        final String connectTimeout = source.getProperty(connectTimeoutKey);
+        final String readTimeout = source.getProperty(readTimeoutKey);
+        if (connectTimeout == null && readTimeout == null) {
+            return options;
+        }
+        final Snapshot current = snapshot;
+        if (current != null && current.matches(options, connectTimeout, readTimeout)) {
+            return current.resolved;
+        }
+        // parsed once per change; a malformed value keeps the last good one
+        final Request.Options fallback = current != null && current.options == options ? current.resolved : options;
+        final Snapshot updated = new Snapshot(options, connectTimeout, readTimeout, new Request.Options(
+                parse(connectTimeoutKey, connectTimeout, fallback.connectTimeoutMillis()),
+                parse(readTimeoutKey, readTimeout, fallback.readTimeoutMillis()),
+                options.isFollowRedirects()));
+        snapshot = updated;
+        return updated.resolved;
+    }
+
+    private static int parse(final String key, final String value, final int fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (final NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Ignoring malformed " + key + " '" + value + "', keeping " + fallback, e);
+            return fallback;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final Request.Options options;
+        private final String connectTimeout;
+        private final String readTimeout;
+        private final Request.Options resolved;
+
+        Snapshot(final Request.Options options, final String connectTimeout, final String readTimeout,
+                 final Request.Options resolved) {
+            this.options = options;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.resolved = resolved;
+        }
+
+        boolean matches(final Request.Options options, final String connectTimeout, final String readTimeout) {
+            return this.options == options && Objects.equals(this.connectTimeout, connectTimeout)
+                    && Objects.equals(this.readTimeout, readTimeout);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.demo.client.feign.completable;
+
+import com.demo.client.feign.FeignProperties;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Target;
+
+final class DynamicTarget<T> implements Target<T> {
+
+    private final Class<T> type;
+    private final String urlKey;
+    private volatile Target<T> current;
+
+    DynamicTarget(final Class<T> type) {
+        this.type = type;
+        this.urlKey = FeignProperties.TARGET_URL.createPropertyKey(type);
+    }
+
+    @Override
+    public Class<T> type() {
+        return type;
+    }
+
+    @Override
+    public String name() {
+        return urlKey;
+    }
+
+    @Override
+    public String url() {
+        return resolve().url();
+    }
+
+    @Override
+    public Request apply(final RequestTemplate input) {
+        return resolve().apply(input);
+    }
+
+    // Re-reads the url on every call, but only builds a new delegate when it changed.
+    private Target<T> resolve() {
+        final String url = FeignProperties.source().getProperty(urlKey);
+        if (url == null) {
+            throw new IllegalStateException("No target url configured for " + urlKey);
+        }
+        final Target<T> target = current;
+        if (target != null && target.url().equals(url)) {
+            return target;
+        }
+        final Target<T> updated = new Target.HardCodedTarget<>(type, urlKey, url);
+        current = updated;
+        return updated;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final DynamicTarget<?> that = (DynamicTarget<?>) obj;
+        return type.equals(that.type) && urlKey.equals(that.urlKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + urlKey.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DynamicTarget(type=" + type.getSimpleName() + ", key=" + urlKey + ")";
+    }
+}
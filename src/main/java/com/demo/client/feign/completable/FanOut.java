@@ -0,0 +1,257 @@
+package com.demo.client.feign.completable;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public final class FanOut<A, R> {
+
+    private enum Mode {
+        FAIL_FAST, BEST_EFFORT, FIRST_SUCCESSES
+    }
+
+    private final Function<? super A, ? extends CompletionStage<R>> call;
+    private final List<A> args;
+    private int parallelism = Integer.MAX_VALUE;
+    private Mode mode = Mode.BEST_EFFORT;
+    private int successes;
+    private BiConsumer<? super A, ? super R> listener = (arg, result) -> {};
+
+    private FanOut(final Function<? super A, ? extends CompletionStage<R>> call,
+                   final Collection<? extends A> args) {
+        this.call = call;
+        this.args = new ArrayList<>(args);
+    }
+
+    public static <A, R> FanOut<A, R> of(final Function<? super A, ? extends CompletionStage<R>> call,
+                                         final Collection<? extends A> args) {
+        return new FanOut<>(call, args);
+    }
+
+    public FanOut<A, R> parallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public FanOut<A, R> failFast() {
+        this.mode = Mode.FAIL_FAST;
+        return this;
+    }
+
+    public FanOut<A, R> bestEffort() {
+        this.mode = Mode.BEST_EFFORT;
+        return this;
+    }
+
+    public FanOut<A, R> firstSuccesses(final int successes) {
+        if (successes < 1) {
+            throw new IllegalArgumentException("successes must be positive: " + successes);
+        }
+        this.mode = Mode.FIRST_SUCCESSES;
+        this.successes = successes;
+        return this;
+    }
+
+    public FanOut<A, R> onResult(final BiConsumer<? super A, ? super R> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public CompletableFuture<Result<A, R>> execute() {
+        return new Execution<>(this).start();
+    }
+
+    public static final class Result<A, R> {
+
+        // in completion order, one entry per call, so repeated arguments are all kept
+        private final List<Map.Entry<A, R>> values;
+        private final List<Map.Entry<A, Throwable>> failures;
+        private final int pending;
+
+        Result(final List<Map.Entry<A, R>> values, final List<Map.Entry<A, Throwable>> failures,
+               final int pending) {
+            this.values = Collections.unmodifiableList(values);
+            this.failures = Collections.unmodifiableList(failures);
+            this.pending = pending;
+        }
+
+        public List<Map.Entry<A, R>> values() {
+            return values;
+        }
+
+        public List<Map.Entry<A, Throwable>> failures() {
+            return failures;
+        }
+
+        public int pending() {
+            return pending;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{values=" + values.size() + ", failures=" + failures.size()
+                    + ", pending=" + pending + '}';
+        }
+    }
+
+    public static final class FanOutException extends CompletionException {
+
+        private final transient Result<?, ?> partialResult;
+
+        FanOutException(final String message, final Throwable cause, final Result<?, ?> partialResult) {
+            super(message, cause);
+            this.partialResult = partialResult;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <A, R> Result<A, R> partialResult() {
+            return (Result<A, R>) partialResult;
+        }
+    }
+
+    private static final class Execution<A, R> {
+
+        private final FanOut<A, R> spec;
+        private final CompletableFuture<Result<A, R>> result = new CompletableFuture<>();
+        private final Set<CompletableFuture<R>> inFlight = ConcurrentHashMap.newKeySet();
+        private final List<Map.Entry<A, R>> values = new ArrayList<>();
+        private final List<Map.Entry<A, Throwable>> failures = new ArrayList<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private int next;
+        private int succeeded;
+        private int failed;
+        private volatile boolean finished;
+
+        Execution(final FanOut<A, R> spec) {
+            this.spec = spec;
+        }
+
+        CompletableFuture<Result<A, R>> start() {
+            if (spec.args.isEmpty()) {
+                result.complete(snapshot());
+            } else {
+                drain();
+            }
+            return result;
+        }
+
+        // Launches calls while there is room, trampolining so that synchronously
+        // completing calls do not recurse through their callbacks.
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (!finished && next < spec.args.size()
+                        && running.get() < spec.parallelism) {
+                    launch(spec.args.get(next++));
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        private void launch(final A arg) {
+            running.incrementAndGet();
+            final CompletableFuture<R> future;
+            try {
+                future = spec.call.apply(arg).toCompletableFuture();
+            } catch (final RuntimeException e) {
+                onComplete(arg, null, e);
+                return;
+            }
+            inFlight.add(future);
+            future.whenComplete((value, ex) -> {
+                inFlight.remove(future);
+                onComplete(arg, value, ex);
+            });
+        }
+
+        private void onComplete(final A arg, final R value, final Throwable ex) {
+            running.decrementAndGet();
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+                    ? ex.getCause() : ex;
+            if (cause == null && !finished) {
+                try {
+                    spec.listener.accept(arg, value);
+                } catch (final Throwable e) {
+                    // a failing listener fails its argument, never the whole fan-out's progress
+                    cause = e;
+                }
+            }
+            final Result<A, R> snapshot;
+            final String failure;
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                if (cause == null) {
+                    succeeded++;
+                    values.add(new AbstractMap.SimpleImmutableEntry<>(arg, value));
+                } else {
+                    failed++;
+                    failures.add(new AbstractMap.SimpleImmutableEntry<>(arg, cause));
+                }
+                failure = decide(cause);
+                snapshot = finished ? snapshot() : null;
+            }
+            if (snapshot == null) {
+                drain();
+                return;
+            }
+            if (failure == null) {
+                result.complete(snapshot);
+            } else {
+                result.completeExceptionally(new FanOutException(failure, cause, snapshot));
+            }
+            for (final CompletableFuture<R> future : inFlight) {
+                future.cancel(false);
+            }
+        }
+
+        private String decide(final Throwable cause) {
+            final int total = spec.args.size();
+            switch (spec.mode) {
+                case FAIL_FAST:
+                    if (cause != null) {
+                        finished = true;
+                        return "Fan-out call failed";
+                    }
+                    break;
+                case FIRST_SUCCESSES:
+                    if (succeeded >= spec.successes) {
+                        finished = true;
+                        return null;
+                    }
+                    if (total - failed < spec.successes) {
+                        finished = true;
+                        return "Only " + (total - failed) + " of the required "
+                                + spec.successes + " calls can succeed";
+                    }
+                    break;
+                default:
+                    break;
+            }
+            finished = succeeded + failed == total;
+            return null;
+        }
+
+        private Result<A, R> snapshot() {
+            return new Result<>(new ArrayList<>(values), new ArrayList<>(failures),
+                    spec.args.size() - succeeded - failed);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.demo.client.feign.completable;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Request;
+
+final class MethodTimeouts {
+
+    private static final ThreadLocal<Policy> CURRENT = new ThreadLocal<>();
+    private static final int WINDOW_SIZE = 128;
+    private static final int MIN_SAMPLES = 16;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final boolean adaptiveByDefault;
+    private final double percentile;
+    private final double headroom;
+    private final int floorMillis;
+    private final int ceilingMillis;
+
+    MethodTimeouts() {
+        this(false, 0, 0, 0, 0);
+    }
+
+    MethodTimeouts(final boolean adaptiveByDefault, final double percentile, final double headroom,
+                   final int floorMillis, final int ceilingMillis) {
+        this.adaptiveByDefault = adaptiveByDefault;
+        this.percentile = percentile;
+        this.headroom = headroom;
+        this.floorMillis = floorMillis;
+        this.ceilingMillis = ceilingMillis;
+    }
+
+    static Policy current() {
+        return CURRENT.get();
+    }
+
+    Map<Method, MethodHandler> decorate(final Map<Method, MethodHandler> dispatch) {
+        final Map<Method, MethodHandler> decorated = new LinkedHashMap<>(dispatch);
+        for (final Map.Entry<Method, MethodHandler> entry : decorated.entrySet()) {
+            final Policy policy = entry.getKey().isDefault() ? null : policyFor(entry.getKey());
+            if (policy != null) {
+                final MethodHandler handler = entry.getValue();
+                entry.setValue(argv -> {
+                    final Policy previous = CURRENT.get();
+                    CURRENT.set(policy);
+                    try {
+                        return handler.invoke(argv);
+                    } finally {
+                        if (previous == null) {
+                            CURRENT.remove();
+                        } else {
+                            CURRENT.set(previous);
+                        }
+                    }
+                });
+            }
+        }
+        return decorated;
+    }
+
+    private Policy policyFor(final Method method) {
+        final CallTimeout timeout = method.getAnnotation(CallTimeout.class);
+        if (timeout != null) {
+            return new Policy(timeout.connectMillis(), timeout.readMillis(), timeout.adaptive()
+                    ? new LatencyWindow(timeout.percentile(), timeout.headroom(),
+                    timeout.floorMillis(), timeout.ceilingMillis())
+                    : null);
+        }
+        return adaptiveByDefault
+                ? new Policy(-1, -1, new LatencyWindow(percentile, headroom, floorMillis, ceilingMillis))
+                : null;
+    }
+
+    static final class Policy {
+
+        private final int connectMillis;
+        private final int readMillis;
+        private final LatencyWindow window;
+        private volatile Resolved resolved;
+
+        Policy(final int connectMillis, final int readMillis, final LatencyWindow window) {
+            this.connectMillis = connectMillis;
+            this.readMillis = readMillis;
+            this.window = window;
+        }
+
+        Request.Options options(final Request.Options given) {
+            final int connect = connectMillis < 0 ? given.connectTimeoutMillis() : connectMillis;
+            final int read = window != null ? window.timeoutMillis()
+                    : readMillis < 0 ? given.readTimeoutMillis() : readMillis;
+            final Resolved last = resolved;
+            if (last != null && last.given == given && last.options.connectTimeoutMillis() == connect
+                    && last.options.readTimeoutMillis() == read) {
+                return last.options;
+            }
+            final Resolved updated = new Resolved(given,
+                    new Request.Options(connect, read, given.isFollowRedirects()));
+            resolved = updated;
+            return updated.options;
+        }
+
+        void record(final long elapsedMillis) {
+            if (window != null) {
+                window.record(elapsedMillis);
+            }
+        }
+    }
+
+    private static final class Resolved {
+
+        private final Request.Options given;
+        private final Request.Options options;
+
+        Resolved(final Request.Options given, final Request.Options options) {
+            this.given = given;
+            this.options = options;
+        }
+    }
+
+    // Rolling window of the last WINDOW_SIZE latencies; the timeout is recomputed
+    // from the percentile every RECOMPUTE_EVERY samples rather than on each call.
+    static final class LatencyWindow {
+
+        private final double percentile;
+        private final double headroom;
+        private final int floorMillis;
+        private final int ceilingMillis;
+        private final long[] samples = new long[WINDOW_SIZE];
+        private long recorded;
+        private volatile int timeoutMillis;
+
+        LatencyWindow(final double percentile, final double headroom,
+                      final int floorMillis, final int ceilingMillis) {
+            this.percentile = percentile;
+            this.headroom = headroom;
+            this.floorMillis = floorMillis;
+            this.ceilingMillis = ceilingMillis;
+            this.timeoutMillis = ceilingMillis;
+        }
+
+        int timeoutMillis() {
+            return timeoutMillis;
+        }
+
+        synchronized void record(final long elapsedMillis) {
+            samples[(int) (recorded % WINDOW_SIZE)] = elapsedMillis;
+            recorded++;
+            if (recorded < MIN_SAMPLES || recorded % RECOMPUTE_EVERY != 0) {
+                return;
+            }
+            final long[] sorted = Arrays.copyOf(samples, (int) Math.min(recorded, WINDOW_SIZE));
+            Arrays.sort(sorted);
+            final int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+            final long timeout = (long) (sorted[Math.max(0, index)] * headroom);
+            timeoutMillis = (int) Math.max(floorMillis, Math.min(ceilingMillis, timeout));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.demo.client.feign.completable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public final class PriorityExecutor implements Executor {
+
+    private static final ThreadLocal<Integer> CURRENT_PRIORITY = new ThreadLocal<>();
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final ThreadPoolExecutor pool;
+    private final long agingNanos;
+    private final int capacity;
+    private final int shedThreshold;
+    private final int shedBelow;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private PriorityExecutor(final Builder builder) {
+        this.agingNanos = builder.agingNanos;
+        this.capacity = builder.capacity;
+        this.shedThreshold = builder.shedThreshold;
+        this.shedBelow = builder.shedBelow;
+        this.pool = new ThreadPoolExecutor(builder.threads, builder.threads, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), builder.threadFactory);
+        // every task has to go through the queue to be ordered
+        this.pool.prestartAllCoreThreads();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static <T> T callWithPriority(final int priority, final Supplier<T> call) {
+        final Integer previous = CURRENT_PRIORITY.get();
+        CURRENT_PRIORITY.set(priority);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_PRIORITY.remove();
+            } else {
+                CURRENT_PRIORITY.set(previous);
+            }
+        }
+    }
+
+    static Integer currentPriority() {
+        return CURRENT_PRIORITY.get();
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        execute(command, CallPriority.NORMAL);
+    }
+
+    public Executor withPriority(final int priority) {
+        return command -> execute(command, priority);
+    }
+
+    // for calls whose priority was resolved on the calling thread; the task may be
+    // submitted later from a thread that knows nothing of the caller's override
+    Executor fixedPriority(final int priority) {
+        return command -> submit(command, priority);
+    }
+
+    public void execute(final Runnable command, final int defaultPriority) {
+        final Integer current = CURRENT_PRIORITY.get();
+        submit(command, current == null ? defaultPriority : current);
+    }
+
+    private void submit(final Runnable command, final int priority) {
+        final int queued = pool.getQueue().size();
+        if (queued >= capacity) {
+            throw new RejectedExecutionException("Queue is full, rejecting call with priority " + priority);
+        }
+        if (queued >= shedThreshold && priority < shedBelow) {
+            throw new RejectedExecutionException("Overloaded, shedding call with priority " + priority);
+        }
+        pool.execute(new PrioritizedTask(command, priority,
+                System.nanoTime() - priority * agingNanos, sequence.getAndIncrement()));
+    }
+
+    public int queued() {
+        return pool.getQueue().size();
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return pool.awaitTermination(timeout, unit);
+    }
+
+    private static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+
+        private final Runnable command;
+        private final int priority;
+        // a task waiting agingNanos overtakes tasks submitted later with one more priority
+        private final long deadline;
+        private final long sequence;
+
+        PrioritizedTask(final Runnable command, final int priority, final long deadline, final long sequence) {
+            this.command = command;
+            this.priority = priority;
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            command.run();
+        }
+
+        @Override
+        public int compareTo(final PrioritizedTask that) {
+            final long diff = deadline - that.deadline;
+            if (diff != 0) {
+                return diff < 0 ? -1 : 1;
+            }
+            return Long.compare(sequence, that.sequence);
+        }
+
+        @Override
+        public String toString() {
+            return "PrioritizedTask{priority=" + priority + ", command=" + command + '}';
+        }
+    }
+
+    public static final class Builder {
+
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private long agingNanos = TimeUnit.MILLISECONDS.toNanos(100);
+        private int capacity = Integer.MAX_VALUE;
+        private int shedThreshold = Integer.MAX_VALUE;
+        private int shedBelow = CallPriority.NORMAL;
+        private ThreadFactory threadFactory;
+
+        private Builder() {}
+
+        public Builder threads(final int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder aging(final long aging, final TimeUnit unit) {
+            this.agingNanos = unit.toNanos(aging);
+            return this;
+        }
+
+        public Builder capacity(final int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder shedBelow(final int priority, final int queued) {
+            this.shedBelow = priority;
+            this.shedThreshold = queued;
+            return this;
+        }
+
+        public Builder threadFactory(final ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        public PriorityExecutor build() {
+            if (threadFactory == null) {
+                final int poolNumber = POOL_NUMBER.incrementAndGet();
+                final AtomicInteger threadNumber = new AtomicInteger();
+                threadFactory = runnable -> {
+                    final Thread thread = new Thread(runnable,
+                            "feign-priority-" + poolNumber + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+            }
+            return new PriorityExecutor(this);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.demo.client.feign.completable;
+
+import java.util.concurrent.TimeUnit;
+
+public final class RateLimiter {
+
+    private static final double RECOVERY_STEP = 0.05;
+    private static final double MIN_RATE_FRACTION = 0.1;
+
+    private final double maxPermitsPerSecond;
+    private final double burst;
+    private final long maxWaitNanos;
+    private double permitsPerSecond;
+    private double storedPermits;
+    private long nextFreeNanos;
+
+    public RateLimiter(final double permitsPerSecond) {
+        this(permitsPerSecond, 1, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    public RateLimiter(final double permitsPerSecond, final int burst,
+                       final long maxWait, final TimeUnit unit) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be positive: " + burst);
+        }
+        this.maxPermitsPerSecond = permitsPerSecond;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.storedPermits = burst;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    public long reserve() {
+        return reserve(System.nanoTime());
+    }
+
+    synchronized long reserve(final long nowNanos) {
+        resync(nowNanos);
+        if (storedPermits >= 1) {
+            storedPermits -= 1;
+            return Math.max(0L, nextFreeNanos - nowNanos);
+        }
+        final long readyNanos = nextFreeNanos + (long) ((1 - storedPermits) * intervalNanos());
+        final long waitNanos = readyNanos - nowNanos;
+        if (waitNanos > maxWaitNanos) {
+            return -1L;
+        }
+        storedPermits = 0;
+        nextFreeNanos = readyNanos;
+        return Math.max(0L, waitNanos);
+    }
+
+    // hands back a reservation whose call was cancelled or rejected before it ran
+    void release() {
+        release(System.nanoTime());
+    }
+
+    synchronized void release(final long nowNanos) {
+        resync(nowNanos);
+        if (nextFreeNanos > nowNanos) {
+            nextFreeNanos = Math.max(nowNanos, nextFreeNanos - intervalNanos());
+        } else {
+            storedPermits = Math.min(burst, storedPermits + 1);
+        }
+    }
+
+    public void throttle(final long retryAfter, final TimeUnit unit) {
+        throttle(System.nanoTime(), unit.toNanos(retryAfter));
+    }
+
+    synchronized void throttle(final long nowNanos, final long retryAfterNanos) {
+        resync(nowNanos);
+        storedPermits = 0;
+        nextFreeNanos = Math.max(nextFreeNanos, nowNanos + retryAfterNanos);
+        permitsPerSecond = Math.max(maxPermitsPerSecond * MIN_RATE_FRACTION, permitsPerSecond / 2);
+    }
+
+    public synchronized void recover() {
+        if (permitsPerSecond < maxPermitsPerSecond) {
+            resync(System.nanoTime());
+            permitsPerSecond = Math.min(maxPermitsPerSecond,
+                    permitsPerSecond + maxPermitsPerSecond * RECOVERY_STEP);
+        }
+    }
+
+    public synchronized double rate() {
+        return permitsPerSecond;
+    }
+
+    private void resync(final long nowNanos) {
+        if (nowNanos > nextFreeNanos) {
+            storedPermits = Math.min(burst,
+                    storedPermits + (nowNanos - nextFreeNanos) / (double) intervalNanos());
+            nextFreeNanos = nowNanos;
+        }
+    }
+
+    private long intervalNanos() {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RateLimiter{rate=" + permitsPerSecond + "/s, max=" + maxPermitsPerSecond + "/s}";
+    }
+}
@@ -0,0 +1,71 @@
+package com.demo.client.feign.completable;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import feign.FeignException;
+import feign.Response;
+import feign.RetryableException;
+import feign.codec.ErrorDecoder;
+
+final class RateLimitingErrorDecoder implements ErrorDecoder {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final ErrorDecoder delegate;
+    private final Function<String, RateLimiter> limiters;
+
+    RateLimitingErrorDecoder(final ErrorDecoder delegate, final Function<String, RateLimiter> limiters) {
+        this.delegate = delegate;
+        this.limiters = limiters;
+    }
+
+    @Override
+    public Exception decode(final String methodKey, final Response response) {
+        final RateLimiter limiter = response.status() == TOO_MANY_REQUESTS ? limiters.apply(methodKey) : null;
+        if (limiter == null) {
+            return delegate.decode(methodKey, response);
+        }
+        limiter.throttle(retryAfterMillis(response), TimeUnit.MILLISECONDS);
+        final Exception exception = delegate.decode(methodKey, response);
+        // a retryer would sleep on the call's thread and resend without a permit;
+        // the limiter already delays the next call without holding a thread
+        return exception instanceof RetryableException
+                ? new RateLimitedException((RetryableException) exception) : exception;
+    }
+
+    static long retryAfterMillis(final Response response) {
+        for (final Map.Entry<String, Collection<String>> header : response.headers().entrySet()) {
+            if ("Retry-After".equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                return parseRetryAfter(header.getValue().iterator().next().trim());
+            }
+        }
+        return 0L;
+    }
+
+    static final class RateLimitedException extends FeignException {
+
+        RateLimitedException(final RetryableException cause) {
+            super(cause.status(), cause.getMessage(), cause);
+        }
+    }
+
+    static long parseRetryAfter(final String value) {
+        try {
+            return Math.max(0L, TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+        } catch (final NumberFormatException e) {
+            // not delta-seconds, try an HTTP-date
+        }
+        try {
+            final ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0L, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+        } catch (final DateTimeParseException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.demo.client.feign.completable;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import feign.InvocationHandlerFactory;
+
+final class RateLimitingFutureFactory implements FutureMethodCallFactory {
+
+    private final FutureMethodCallFactory delegate;
+    private final CompletableContract contract;
+    private final Function<String, RateLimiter> limiters;
+    private final ScheduledExecutorService scheduler;
+
+    RateLimitingFutureFactory(final FutureMethodCallFactory delegate, final CompletableContract contract,
+                              final Function<String, RateLimiter> limiters,
+                              final ScheduledExecutorService scheduler) {
+        this.delegate = delegate;
+        this.contract = contract;
+        this.limiters = limiters;
+        this.scheduler = scheduler == null ? DefaultScheduler.INSTANCE : scheduler;
+    }
+
+    @Override
+    public Future<?> create(final Map<Method, InvocationHandlerFactory.MethodHandler> dispatch,
+                            final Method method, final Object[] args, final Executor executor) {
+        final String configKey = contract.configKey(method);
+        final RateLimiter limiter = limiters.apply(configKey);
+        if (limiter == null) {
+            return delegate.create(dispatch, method, args, executor);
+        }
+        final long waitNanos = limiter.reserve();
+        if (waitNanos < 0) {
+            final CompletableFuture<Object> rejected = new CompletableFuture<>();
+            // shaped like a call refused by the executor
+            rejected.completeExceptionally(new CompletionException(new RejectedExecutionException(
+                    "Rate limit of " + configKey + " would delay the call beyond its deadline")));
+            return rejected;
+        }
+        if (waitNanos == 0) {
+            return settle(limiter, start(dispatch, method, args, executor, limiter));
+        }
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        final ScheduledFuture<?> scheduled = scheduler.schedule(() -> {
+            if (result.isDone()) {
+                limiter.release();
+                return;
+            }
+            final Future<?> future;
+            try {
+                future = start(dispatch, method, args, executor, limiter);
+            } catch (final RuntimeException e) {
+                result.completeExceptionally(new CompletionException(e));
+                return;
+            }
+            if (!(future instanceof CompletionStage)) {
+                result.completeExceptionally(new IllegalStateException(
+                        "Delayed calls require a CompletionStage, got " + future));
+                return;
+            }
+            settle(limiter, future);
+            ((CompletionStage<?>) future).whenComplete((value, ex) -> {
+                if (ex == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(ex);
+                }
+            });
+        }, waitNanos, TimeUnit.NANOSECONDS);
+        // a call cancelled while it waits gives its slot back straight away
+        result.whenComplete((value, ex) -> {
+            if (result.isCancelled() && scheduled.cancel(false)) {
+                limiter.release();
+            }
+        });
+        return result;
+    }
+
+    private Future<?> start(final Map<Method, InvocationHandlerFactory.MethodHandler> dispatch,
+                            final Method method, final Object[] args, final Executor executor,
+                            final RateLimiter limiter) {
+        try {
+            return delegate.create(dispatch, method, args, executor);
+        } catch (final RejectedExecutionException e) {
+            limiter.release();
+            throw e;
+        }
+    }
+
+    private static Future<?> settle(final RateLimiter limiter, final Future<?> future) {
+        if (future instanceof CompletionStage) {
+            ((CompletionStage<?>) future).whenComplete((value, ex) -> {
+                if (ex == null) {
+                    limiter.recover();
+                } else if (ex instanceof RejectedExecutionException
+                        || ex.getCause() instanceof RejectedExecutionException) {
+                    // the downstream executor refused the call, so no request went out
+                    limiter.release();
+                }
+            });
+        }
+        return future;
+    }
+
+    private static final class DefaultScheduler {
+
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "feign-rate-limiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
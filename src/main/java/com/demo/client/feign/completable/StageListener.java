@@ -0,0 +1,12 @@
+package com.demo.client.feign.completable;
+
+@FunctionalInterface
+public interface StageListener {
+
+    enum Stage {
+        NETWORK, DECODE, COMPLETION
+    }
+
+    void onStage(final Stage stage, final String configKey, final long queuedNanos,
+                 final long runNanos, final Throwable failure);
+}
@@ -0,0 +1,245 @@
+package com.demo.client.feign.completable;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.demo.client.feign.completable.StageListener.Stage;
+import feign.FeignException;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import feign.codec.ErrorDecoder;
+
+final class StagedFutureMethodCallFactory implements FutureMethodCallFactory {
+
+    private static final int NOT_FOUND = 404;
+
+    private final CompletableContract contract;
+    private final Decoder decoder;
+    private final ErrorDecoder errorDecoder;
+    private final boolean decode404;
+    private final Retryer retryer;
+    private final AsyncDispatchClient asyncDispatch;
+    private final Executor decodeExecutor;
+    private final Executor completionExecutor;
+    private final StageListener listener;
+
+    StagedFutureMethodCallFactory(final CompletableContract contract, final Decoder decoder,
+                                  final ErrorDecoder errorDecoder, final boolean decode404,
+                                  final Retryer retryer, final AsyncDispatchClient asyncDispatch,
+                                  final Executor decodeExecutor, final Executor completionExecutor,
+                                  final StageListener listener) {
+        this.contract = contract;
+        this.decoder = decoder;
+        this.errorDecoder = errorDecoder;
+        this.decode404 = decode404;
+        this.retryer = retryer;
+        this.asyncDispatch = asyncDispatch;
+        this.decodeExecutor = decodeExecutor == null ? DefaultDecodePool.INSTANCE : decodeExecutor;
+        this.completionExecutor = completionExecutor;
+        this.listener = listener;
+    }
+
+    @Override
+    public Future<?> create(final Map<Method, MethodHandler> dispatch, final Method method,
+                            final Object[] args, final Executor executor) {
+        final String configKey = contract.configKey(method);
+        final Call call = new Call(dispatch.get(method), args, configKey, contract.decodeType(configKey),
+                executor);
+        call.handOff(executor, call::network);
+        return call.result;
+    }
+
+    private Object decode(final String configKey, final Type type, final Response response) throws Exception {
+        if (type == null || type == Response.class) {
+            return response;
+        }
+        try {
+            final int status = response.status();
+            if (status >= 200 && status < 300) {
+                return type == void.class || type == Void.class ? null : decodeBody(type, response);
+            }
+            if (decode404 && status == NOT_FOUND && type != void.class && type != Void.class) {
+                return decodeBody(type, response);
+            }
+            throw errorDecoder.decode(configKey, response);
+        } finally {
+            Util.ensureClosed(response.body());
+        }
+    }
+
+    // wrapped as SynchronousMethodHandler does, so callers see the same exception types in both modes
+    private Object decodeBody(final Type type, final Response response) {
+        try {
+            return decoder.decode(response, type);
+        } catch (final FeignException e) {
+            throw e;
+        } catch (final IOException e) {
+            final Request request = response.request();
+            throw new DecodeException(response.status(), String.format("%s reading %s %s",
+                    e.getMessage(), request.httpMethod(), request.url()), request, e);
+        } catch (final RuntimeException e) {
+            throw new DecodeException(response.status(), e.getMessage(), response.request(), e);
+        }
+    }
+
+    // One call moving through the stages; every hand-off to an executor is
+    // a happens-before edge, so the plain fields need no further fencing.
+    private final class Call {
+
+        private final MethodHandler handler;
+        private final Object[] args;
+        private final String configKey;
+        private final Type type;
+        private final Executor networkExecutor;
+        private final Retryer callRetryer = retryer.clone();
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private long handedOff;
+
+        Call(final MethodHandler handler, final Object[] args, final String configKey, final Type type,
+             final Executor networkExecutor) {
+            this.handler = handler;
+            this.args = args;
+            this.configKey = configKey;
+            this.type = type;
+            this.networkExecutor = networkExecutor;
+        }
+
+        void handOff(final Executor stageExecutor, final Runnable stage) {
+            handedOff = System.nanoTime();
+            try {
+                stageExecutor.execute(stage);
+            } catch (final RejectedExecutionException e) {
+                finish(null, e);
+            }
+        }
+
+        void network() {
+            final long start = System.nanoTime();
+            final Response response;
+            try {
+                response = (Response) (asyncDispatch == null
+                        ? handler.invoke(args) : asyncDispatch.invoke(handler, args));
+            } catch (final AsyncDispatchClient.Deferred deferred) {
+                // the network executor is released here; the client completes the exchange
+                deferred.response().whenComplete((value, ex) -> {
+                    if (ex == null) {
+                        received(start, value);
+                    } else {
+                        failed(start, deferred.request(), ex instanceof CompletionException
+                                && ex.getCause() != null ? ex.getCause() : ex);
+                    }
+                });
+                return;
+            } catch (final Throwable cause) {
+                report(Stage.NETWORK, start, cause);
+                complete(null, cause);
+                return;
+            }
+            received(start, response);
+        }
+
+        private void received(final long start, final Response response) {
+            report(Stage.NETWORK, start, null);
+            handOff(decodeExecutor, () -> decode(response));
+        }
+
+        // an async exchange bypasses feign's retry loop, so I/O errors are turned
+        // into the RetryableException feign would have raised and retried here
+        private void failed(final long start, final Request request, final Throwable cause) {
+            report(Stage.NETWORK, start, cause);
+            if (cause instanceof IOException) {
+                retry(new RetryableException(-1, String.format("%s executing %s %s", cause.getMessage(),
+                        request.httpMethod(), request.url()), request.httpMethod(), cause, (Date) null, request));
+            } else {
+                complete(null, cause);
+            }
+        }
+
+        void decode(final Response response) {
+            final long start = System.nanoTime();
+            final Object value;
+            try {
+                value = StagedFutureMethodCallFactory.this.decode(configKey, type, response);
+            } catch (final Throwable cause) {
+                report(Stage.DECODE, start, cause);
+                if (cause instanceof RetryableException) {
+                    retry((RetryableException) cause);
+                } else {
+                    complete(null, cause);
+                }
+                return;
+            }
+            report(Stage.DECODE, start, null);
+            complete(value, null);
+        }
+
+        // The error decoder runs here rather than inside feign's retry loop, so a
+        // RetryableException it returns is retried against the configured Retryer.
+        // The back-off sleeps on the network executor, as it would on a plain call.
+        void retry(final RetryableException cause) {
+            handOff(networkExecutor, () -> {
+                try {
+                    callRetryer.continueOrPropagate(cause);
+                } catch (final RetryableException e) {
+                    complete(null, e);
+                    return;
+                }
+                network();
+            });
+        }
+
+        void complete(final Object value, final Throwable cause) {
+            if (completionExecutor == null) {
+                finish(value, cause);
+                return;
+            }
+            handOff(completionExecutor, () -> {
+                final long start = System.nanoTime();
+                finish(value, cause);
+                report(Stage.COMPLETION, start, cause);
+            });
+        }
+
+        private void finish(final Object value, final Throwable cause) {
+            if (cause == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(cause instanceof CompletionException
+                        ? cause : new CompletionException(cause));
+            }
+        }
+
+        private void report(final Stage stage, final long start, final Throwable cause) {
+            listener.onStage(stage, configKey, start - handedOff, System.nanoTime() - start, cause);
+        }
+    }
+
+    private static final class DefaultDecodePool {
+
+        private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+        static final ExecutorService INSTANCE = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), runnable -> {
+                    final Thread thread = new Thread(runnable, "feign-decode-" + THREAD_NUMBER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
@@ -0,0 +1,231 @@
+package com.demo.client.feign.completable;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// A request body that is written to the connection as it is read instead of
+// being encoded into a byte[] first. Streams and channels passed in by the
+// caller are left open; a Path is opened and closed per attempt.
+public abstract class StreamingBody {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    StreamingBody() {}
+
+    public static boolean supports(final Type type) {
+        if (!(type instanceof Class)) {
+            return false;
+        }
+        final Class<?> rawType = (Class<?>) type;
+        return Path.class.isAssignableFrom(rawType) || FileChannel.class.isAssignableFrom(rawType)
+                || InputStream.class.isAssignableFrom(rawType);
+    }
+
+    public static StreamingBody of(final Object source) throws IOException {
+        if (source instanceof Path) {
+            return new PathBody((Path) source);
+        }
+        if (source instanceof FileChannel) {
+            return new ChannelBody((FileChannel) source);
+        }
+        if (source instanceof InputStream) {
+            return new StreamBody((InputStream) source);
+        }
+        throw new IllegalArgumentException("Unsupported streaming body " + source);
+    }
+
+    // -1 when unknown, in which case clients should fall back to chunked encoding
+    public abstract long length();
+
+    // the file behind the body, for clients that can send it directly
+    public Path path() {
+        return null;
+    }
+
+    public abstract InputStream open() throws IOException;
+
+    public abstract void writeTo(OutputStream out) throws IOException;
+
+    private static void transfer(final FileChannel channel, long position, long count,
+                                 final OutputStream out) throws IOException {
+        // transferTo uses sendfile or mapped reads where the target allows it and
+        // a bounded buffer otherwise; either way the file is never held in heap
+        final WritableByteChannel target = Channels.newChannel(out);
+        while (count > 0) {
+            final long written = channel.transferTo(position, count, target);
+            if (written <= 0) {
+                throw new EOFException("File shrank while it was being sent");
+            }
+            position += written;
+            count -= written;
+        }
+    }
+
+    private static InputStream unclosable(final InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public void close() {
+                // owned by the caller
+            }
+        };
+    }
+
+    private static final class PathBody extends StreamingBody {
+
+        private final Path path;
+        private final long length;
+
+        PathBody(final Path path) throws IOException {
+            this.path = path;
+            this.length = Files.size(path);
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public Path path() {
+            return path;
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void writeTo(final OutputStream out) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                transfer(channel, 0, length, out);
+            }
+        }
+    }
+
+    // Sent from the channel's position at the time of the call; transferTo and
+    // positional reads do not move the position, so retries resend the same range.
+    private static final class ChannelBody extends StreamingBody {
+
+        private final FileChannel channel;
+        private final long position;
+        private final long length;
+
+        ChannelBody(final FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.position = channel.position();
+            this.length = Math.max(0, channel.size() - position);
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return new ChannelInputStream(channel, position, length);
+        }
+
+        @Override
+        public void writeTo(final OutputStream out) throws IOException {
+            transfer(channel, position, length, out);
+        }
+    }
+
+    // reads a range of the caller's channel without touching its position,
+    // and leaves the channel open on close
+    private static final class ChannelInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private long position;
+        private long remaining;
+
+        ChannelInputStream(final FileChannel channel, final long position, final long length) {
+            this.channel = channel;
+            this.position = position;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)), position);
+            if (read < 0) {
+                throw new EOFException("File shrank while it was being sent");
+            }
+            position += read;
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final long skipped = Math.max(0, Math.min(n, remaining));
+            position += skipped;
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+    }
+
+    private static final class StreamBody extends StreamingBody {
+
+        private final InputStream in;
+        private boolean consumed;
+
+        StreamBody(final InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public long length() {
+            return -1;
+        }
+
+        @Override
+        public synchronized InputStream open() throws IOException {
+            if (consumed) {
+                throw new IOException("InputStream body can not be sent twice");
+            }
+            consumed = true;
+            return unclosable(in);
+        }
+
+        @Override
+        public void writeTo(final OutputStream out) throws IOException {
+            final InputStream source = open();
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = source.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+}
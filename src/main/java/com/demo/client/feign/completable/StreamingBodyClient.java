@@ -0,0 +1,36 @@
+package com.demo.client.feign.completable;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+final class StreamingBodyClient implements Client {
+
+    private final Client delegate;
+
+    StreamingBodyClient(final Client delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        final StreamingBody body = StreamingEncoder.pending(request);
+        if (body == null) {
+            return delegate.execute(request, options);
+        }
+        if (delegate instanceof StreamingClient) {
+            return ((StreamingClient) delegate).execute(request, options, body);
+        }
+        // the configured client only takes byte[] bodies; correct, but buffered
+        final byte[] bytes;
+        try (InputStream in = body.open()) {
+            bytes = Util.toByteArray(in);
+        }
+        return delegate.execute(Request.create(request.httpMethod(), request.url(), request.headers(),
+                bytes, request.charset(), request.requestTemplate()), options);
+    }
+}
@@ -0,0 +1,14 @@
+package com.demo.client.feign.completable;
+
+import java.io.IOException;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+// A client able to send a StreamingBody without buffering it; other clients
+// receive the body as a byte[] read from the stream.
+public interface StreamingClient extends Client {
+
+    Response execute(Request request, Request.Options options, StreamingBody body) throws IOException;
+}
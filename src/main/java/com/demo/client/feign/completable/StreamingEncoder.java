@@ -0,0 +1,106 @@
+package com.demo.client.feign.completable;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+
+// Encoding runs on the thread that then executes the request, so streaming
+// bodies are handed to StreamingBodyClient through a thread local which lives
+// until the method handler returns, covering retries. Every handler invocation
+// starts with a clean slot, so calls made while a request is built never see
+// the outer call's body, and the body is only sent with the request whose
+// template it was bound to.
+final class StreamingEncoder implements Encoder {
+
+    private static final ThreadLocal<Pending> PENDING = new ThreadLocal<>();
+    private static final String CONTENT_TYPE = "Content-Type";
+
+    // runs after every other interceptor, on the template feign turns into the request;
+    // the template the encoder sees is copied once the arguments are expanded
+    static final RequestInterceptor BINDER = template -> {
+        final Pending pending = PENDING.get();
+        if (pending != null) {
+            pending.template = template;
+        }
+    };
+
+    private final Encoder delegate;
+
+    StreamingEncoder(final Encoder delegate) {
+        this.delegate = delegate;
+    }
+
+    static StreamingBody pending(final Request request) {
+        final Pending pending = PENDING.get();
+        return pending != null && pending.template == request.requestTemplate() ? pending.body : null;
+    }
+
+    static Map<Method, MethodHandler> decorate(final Map<Method, MethodHandler> dispatch) {
+        final Map<Method, MethodHandler> decorated = new LinkedHashMap<>(dispatch);
+        for (final Map.Entry<Method, MethodHandler> entry : decorated.entrySet()) {
+            if (!entry.getKey().isDefault()) {
+                final MethodHandler handler = entry.getValue();
+                entry.setValue(argv -> {
+                    final Pending previous = PENDING.get();
+                    PENDING.remove();
+                    try {
+                        return handler.invoke(argv);
+                    } finally {
+                        if (previous == null) {
+                            PENDING.remove();
+                        } else {
+                            PENDING.set(previous);
+                        }
+                    }
+                });
+            }
+        }
+        return decorated;
+    }
+
+    @Override
+    public void encode(final Object object, final Type bodyType, final RequestTemplate template)
+            throws EncodeException {
+        if (!StreamingBody.supports(bodyType)) {
+            delegate.encode(object, bodyType, template);
+            return;
+        }
+        try {
+            PENDING.set(new Pending(StreamingBody.of(object)));
+        } catch (final IOException e) {
+            throw new EncodeException("Can not stream " + object, e);
+        }
+        if (!hasContentType(template.headers())) {
+            template.header(CONTENT_TYPE, "application/octet-stream");
+        }
+    }
+
+    private static final class Pending {
+
+        private final StreamingBody body;
+        private RequestTemplate template;
+
+        Pending(final StreamingBody body) {
+            this.body = body;
+        }
+    }
+
+    private static boolean hasContentType(final Map<String, Collection<String>> headers) {
+        for (final String name : headers.keySet()) {
+            if (CONTENT_TYPE.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package com.demo.client.feign.completable;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+final class TimeoutClient implements Client {
+
+    private final Client delegate;
+
+    TimeoutClient(final Client delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        final MethodTimeouts.Policy policy = MethodTimeouts.current();
+        if (policy == null) {
+            return delegate.execute(request, options);
+        }
+        final Request.Options resolved = policy.options(options);
+        final long start = System.nanoTime();
+        try {
+            final Response response = delegate.execute(request, resolved);
+            policy.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return response;
+        } catch (final AsyncDispatchClient.Deferred deferred) {
+            deferred.response().whenComplete((response, ex) -> {
+                final Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                if (cause == null || cause instanceof SocketTimeoutException) {
+                    policy.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            });
+            throw deferred;
+        } catch (final SocketTimeoutException e) {
+            // censored sample: the call took at least as long as the timeout
+            policy.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            throw e;
+        }
+    }
+}
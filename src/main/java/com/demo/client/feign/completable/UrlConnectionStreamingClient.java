@@ -0,0 +1,108 @@
+package com.demo.client.feign.completable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+public final class UrlConnectionStreamingClient implements StreamingClient {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final Client delegate;
+    private final SSLSocketFactory sslSocketFactory;
+    private final HostnameVerifier hostnameVerifier;
+
+    public UrlConnectionStreamingClient() {
+        this(null, null);
+    }
+
+    public UrlConnectionStreamingClient(final SSLSocketFactory sslSocketFactory,
+                                        final HostnameVerifier hostnameVerifier) {
+        this.delegate = new Client.Default(sslSocketFactory, hostnameVerifier);
+        this.sslSocketFactory = sslSocketFactory;
+        this.hostnameVerifier = hostnameVerifier;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        return delegate.execute(request, options);
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options,
+                            final StreamingBody body) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(request.url()).openConnection();
+        if (connection instanceof HttpsURLConnection) {
+            final HttpsURLConnection sslConnection = (HttpsURLConnection) connection;
+            if (sslSocketFactory != null) {
+                sslConnection.setSSLSocketFactory(sslSocketFactory);
+            }
+            if (hostnameVerifier != null) {
+                sslConnection.setHostnameVerifier(hostnameVerifier);
+            }
+        }
+        connection.setConnectTimeout(options.connectTimeoutMillis());
+        connection.setReadTimeout(options.readTimeoutMillis());
+        connection.setAllowUserInteraction(false);
+        connection.setInstanceFollowRedirects(options.isFollowRedirects());
+        connection.setRequestMethod(request.httpMethod().name());
+        for (final Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+            if ("Content-Length".equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            for (final String value : header.getValue()) {
+                connection.addRequestProperty(header.getKey(), value);
+            }
+        }
+        final long length = body.length();
+        if (length >= 0) {
+            connection.setFixedLengthStreamingMode(length);
+        } else {
+            connection.setChunkedStreamingMode(CHUNK_SIZE);
+        }
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            body.writeTo(out);
+        }
+        return toResponse(connection, request);
+    }
+
+    private static Response toResponse(final HttpURLConnection connection, final Request request)
+            throws IOException {
+        final int status = connection.getResponseCode();
+        if (status < 0) {
+            throw new IOException(String.format("Invalid status(%s) executing %s %s", status,
+                    connection.getRequestMethod(), connection.getURL()));
+        }
+        final Map<String, Collection<String>> headers = new LinkedHashMap<>();
+        for (final Map.Entry<String, List<String>> field : connection.getHeaderFields().entrySet()) {
+            // the status line is reported with a null key
+            if (field.getKey() != null) {
+                headers.put(field.getKey(), field.getValue());
+            }
+        }
+        final int length = connection.getContentLength();
+        final InputStream stream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        return Response.builder()
+                .status(status)
+                .reason(connection.getResponseMessage())
+                .headers(headers)
+                .body(stream, length < 0 ? null : length)
+                .request(request)
+                .build();
+    }
+}
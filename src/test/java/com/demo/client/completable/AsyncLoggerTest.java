@@ -0,0 +1,83 @@
+package com.demo.client.completable;
+
+import com.demo.client.feign.completable.AsyncLogger;
+import com.demo.client.feign.completable.CompletableFeign;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import feign.Logger;
+import feign.RequestLine;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncLoggerTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Test
+    public void testFullLogging() {
+        server.enqueue(new MockResponse().setBody("0123456789"));
+        final Queue<String> lines = new ConcurrentLinkedQueue<>();
+        final AsyncLogger logger = new AsyncLogger(lines::add, 1.0, 4, 64);
+        final TestInterface api = CompletableFeign.builder()
+                .logger(logger)
+                .logLevel(Logger.Level.FULL)
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("0123456789", api.post("request data").join());
+        logger.close();
+        final List<String> logged = new ArrayList<>(lines);
+        assertTrue(logged.get(0).startsWith("[TestInterface#post] ---> POST http://localhost:"));
+        assertTrue(logged.contains("[TestInterface#post] requ... (8 more bytes)"));
+        assertTrue(logged.contains("[TestInterface#post] 0123... (6 more bytes)"));
+        assertTrue(logged.get(logged.size() - 1).endsWith("<--- END HTTP (10-byte body)"));
+    }
+
+    @Test
+    public void testSampledOut() {
+        server.enqueue(new MockResponse().setBody("response data"));
+        final Queue<String> lines = new ConcurrentLinkedQueue<>();
+        final AsyncLogger logger = new AsyncLogger(lines::add, 0.0, 4096, 64);
+        final TestInterface api = CompletableFeign.builder()
+                .logger(logger)
+                .logLevel(Logger.Level.FULL)
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("response data", api.post("request data").join());
+        logger.close();
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    public void testDropsWhenFull() {
+        server.enqueue(new MockResponse().setBody("response data"));
+        final AsyncLogger logger = new AsyncLogger(line -> {
+            try {
+                Thread.sleep(50);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1.0, 4096, 2);
+        final TestInterface api = CompletableFeign.builder()
+                .logger(logger)
+                .logLevel(Logger.Level.FULL)
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("response data", api.post("request data").join());
+        logger.close();
+        assertTrue(logger.dropped() > 0);
+    }
+
+    interface TestInterface {
+
+        @RequestLine("POST /")
+        CompletableFuture<String> post(final String data);
+    }
+}
@@ -0,0 +1,86 @@
+package com.demo.client.completable;
+
+import com.demo.client.feign.completable.CachedCredentials;
+import com.demo.client.feign.completable.CompletableFeign;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import feign.RequestLine;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class CachedCredentialsTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Test
+    public void testSingleRefreshInFlight() {
+        final AtomicInteger fetches = new AtomicInteger();
+        final CompletableFuture<CachedCredentials.Credential<String>> pending = new CompletableFuture<>();
+        final CachedCredentials<String> credentials = new CachedCredentials<>(() -> {
+            fetches.incrementAndGet();
+            return pending;
+        }, 0, TimeUnit.MILLISECONDS);
+        final CompletableFuture<String> first = credentials.get();
+        final CompletableFuture<String> second = credentials.get();
+        assertFalse(first.isDone());
+        pending.complete(new CachedCredentials.Credential<>("token", 1, TimeUnit.HOURS));
+        assertEquals("token", first.join());
+        assertEquals("token", second.join());
+        assertEquals("token", credentials.get().join());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void testRefreshAhead() {
+        final AtomicInteger fetches = new AtomicInteger();
+        final CachedCredentials<String> credentials = new CachedCredentials<>(() ->
+                CompletableFuture.completedFuture(new CachedCredentials.Credential<>(
+                        "token" + fetches.incrementAndGet(), 1, TimeUnit.MINUTES)),
+                2, TimeUnit.MINUTES);
+        assertEquals("token1", credentials.get().join());
+        // inside the refresh window the cached value is served while a refresh runs
+        assertEquals("token1", credentials.get().join());
+        assertEquals("token2", credentials.get().join());
+        assertEquals(3, fetches.get());
+    }
+
+    @Test
+    public void testBearerHeader() throws Exception {
+        server.enqueue(new MockResponse().setBody("first"));
+        server.enqueue(new MockResponse().setBody("second"));
+        server.enqueue(new MockResponse().setBody("third"));
+        final AtomicInteger fetches = new AtomicInteger();
+        final CachedCredentials<String> credentials = new CachedCredentials<>(() ->
+                CompletableFuture.supplyAsync(() -> new CachedCredentials.Credential<>(
+                        "token" + fetches.incrementAndGet(), 1, TimeUnit.HOURS)),
+                1, TimeUnit.MINUTES);
+        final TestInterface api = CompletableFeign.builder()
+                .asyncRequestInterceptor(credentials.bearer())
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("first", api.get().join());
+        assertEquals("second", api.get().join());
+        assertEquals("third", api.post());
+        assertEquals("Bearer token1", server.takeRequest().getHeader("Authorization"));
+        assertEquals("Bearer token1", server.takeRequest().getHeader("Authorization"));
+        assertEquals("Bearer token1", server.takeRequest().getHeader("Authorization"));
+        assertEquals(1, fetches.get());
+    }
+
+    interface TestInterface {
+
+        @RequestLine("GET /")
+        CompletableFuture<String> get();
+
+        @RequestLine("POST /")
+        String post();
+    }
+}
@@ -0,0 +1,67 @@
+package com.demo.client.completable;
+
+import com.demo.client.feign.completable.CallTimeout;
+import com.demo.client.feign.completable.CompletableFeign;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import feign.RequestLine;
+import feign.RetryableException;
+import feign.Retryer;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+
+public class CallTimeoutTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Test
+    public void testAnnotatedTimeout() {
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        final TestInterface api = CompletableFeign.builder()
+                .retryer(Retryer.NEVER_RETRY)
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertTimedOut(api.fast());
+        assertEquals("slow", api.plain().join());
+    }
+
+    @Test
+    public void testAdaptiveTimeout() {
+        for (int i = 0; i < 16; i++) {
+            server.enqueue(new MockResponse().setBody("quick"));
+        }
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        final TestInterface api = CompletableFeign.builder()
+                .retryer(Retryer.NEVER_RETRY)
+                .adaptiveTimeouts(0.5, 2.0, 50, 5000, TimeUnit.MILLISECONDS)
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        for (int i = 0; i < 16; i++) {
+            assertEquals("quick", api.plain().join());
+        }
+        assertTimedOut(api.plain());
+    }
+
+    private static void assertTimedOut(final CompletableFuture<String> future) {
+        final Throwable cause = future.handle((value, ex) -> ex).join().getCause();
+        assertEquals(RetryableException.class, cause.getClass());
+        assertEquals(SocketTimeoutException.class, cause.getCause().getClass());
+    }
+
+    interface TestInterface {
+
+        @CallTimeout(readMillis = 100)
+        @RequestLine("GET /")
+        CompletableFuture<String> fast();
+
+        @RequestLine("GET /")
+        CompletableFuture<String> plain();
+    }
+}
@@ -0,0 +1,107 @@
+package com.demo.client.completable;
+
+import com.demo.client.feign.DynamicPropertySource;
+import com.demo.client.feign.FeignProperties;
+import com.demo.client.feign.FeignPropertySource;
+import com.demo.client.feign.completable.CompletableFeign;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import feign.RequestLine;
+import feign.Retryer;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class DynamicPropertiesTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Rule
+    public final MockWebServer other = new MockWebServer();
+
+    private final DynamicPropertySource source = new DynamicPropertySource(FeignPropertySource.SYSTEM);
+
+    @Before
+    public void beforeTest() {
+        FeignProperties.source(source);
+    }
+
+    @After
+    public void afterTest() {
+        FeignProperties.source(null);
+    }
+
+    @Test
+    public void testSnapshotAndParent() {
+        System.setProperty("dynamic.parent.key", "parent");
+        source.setProperty("dynamic.key", "value");
+        assertEquals("value", source.getProperty("dynamic.key"));
+        assertEquals("parent", source.getProperty("dynamic.parent.key"));
+        source.replaceAll(Collections.singletonMap("dynamic.other", "other"));
+        assertNull(source.getProperty("dynamic.key"));
+        assertEquals("other", source.removeProperty("dynamic.other"));
+        assertNull(new DynamicPropertySource().getProperty("dynamic.parent.key"));
+    }
+
+    @Test
+    public void testTargetUrlChangesWithoutRebuild() {
+        server.enqueue(new MockResponse().setBody("first"));
+        other.enqueue(new MockResponse().setBody("second"));
+        FeignProperties.TARGET_URL.setProperty(TestInterface.class, "http://localhost:" + server.getPort());
+        final TestInterface api = CompletableFeign.builder().target(TestInterface.class);
+        assertEquals("first", api.get().join());
+        FeignProperties.TARGET_URL.setProperty(TestInterface.class, "http://localhost:" + other.getPort());
+        assertEquals("second", api.get().join());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, other.getRequestCount());
+    }
+
+    @Test
+    public void testReadTimeoutChangesWithoutRebuild() {
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        FeignProperties.TARGET_URL.setProperty(TestInterface.class, "http://localhost:" + server.getPort());
+        FeignProperties.READ_TIMEOUT_MILLIS.setProperty(TestInterface.class, "100");
+        final TestInterface api = CompletableFeign.builder()
+                .retryer(Retryer.NEVER_RETRY)
+                .target(TestInterface.class);
+        assertNotNull(api.get().handle((value, ex) -> ex).join());
+        FeignProperties.READ_TIMEOUT_MILLIS.setProperty(TestInterface.class, "5000");
+        assertEquals("slow", api.get().join());
+    }
+
+    @Test
+    public void testMalformedTimeoutKeepsPreviousValue() {
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        FeignProperties.TARGET_URL.setProperty(TestInterface.class, "http://localhost:" + server.getPort());
+        FeignProperties.READ_TIMEOUT_MILLIS.setProperty(TestInterface.class, "100");
+        final TestInterface api = CompletableFeign.builder()
+                .retryer(Retryer.NEVER_RETRY)
+                .target(TestInterface.class);
+        assertNotNull(api.get().handle((value, ex) -> ex).join());
+        FeignProperties.READ_TIMEOUT_MILLIS.setProperty(TestInterface.class, "5s");
+        final Throwable throwable = api.get().handle((value, ex) -> ex).join();
+        assertNotNull(throwable);
+        assertFalse(throwable.getCause() instanceof NumberFormatException);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    interface TestInterface {
+
+        @RequestLine("GET /")
+        CompletableFuture<String> get();
+    }
+}
@@ -0,0 +1,165 @@
+package com.demo.client.completable;
+
+import com.demo.client.feign.completable.CompletableFeign;
+import com.demo.client.feign.completable.FanOut;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import feign.Param;
+import feign.RequestLine;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FanOutTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Test
+    public void testBestEffortWithClient() {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setBody("ok"));
+        }
+        final TestInterface api = CompletableFeign.builder()
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final List<String> streamed = Collections.synchronizedList(new ArrayList<>());
+        final FanOut.Result<String, String> result = FanOut.of(api::get, Arrays.asList("a", "b", "c", "d"))
+                .parallelism(2)
+                .onResult((arg, value) -> streamed.add(arg))
+                .execute().join();
+        assertEquals(4, result.values().size());
+        assertEquals(4, streamed.size());
+        assertTrue(result.failures().isEmpty());
+        assertEquals(4, server.getRequestCount());
+    }
+
+    @Test
+    public void testParallelismIsBounded() {
+        final List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        final CompletableFuture<FanOut.Result<Integer, Integer>> future = FanOut.<Integer, Integer>of(arg -> {
+            final CompletableFuture<Integer> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }, range(10)).parallelism(3).execute();
+        assertEquals(3, calls.size());
+        calls.get(0).complete(0);
+        assertEquals(4, calls.size());
+        for (int i = 1; i < 10; i++) {
+            calls.get(i).complete(i);
+        }
+        assertEquals(10, future.join().values().size());
+    }
+
+    @Test
+    public void testSynchronousCallsDoNotOverflow() {
+        final FanOut.Result<Integer, Integer> result = FanOut.<Integer, Integer>of(
+                CompletableFuture::completedFuture, range(100_000)).parallelism(1).execute().join();
+        assertEquals(100_000, result.values().size());
+    }
+
+    @Test
+    public void testFailFast() {
+        final AtomicInteger launched = new AtomicInteger();
+        final CompletableFuture<FanOut.Result<Integer, Integer>> future = FanOut.<Integer, Integer>of(arg -> {
+            launched.incrementAndGet();
+            if (arg == 2) {
+                final CompletableFuture<Integer> failed = new CompletableFuture<>();
+                failed.completeExceptionally(new IllegalStateException("boom"));
+                return failed;
+            }
+            return CompletableFuture.completedFuture(arg);
+        }, range(10)).parallelism(1).failFast().execute();
+        try {
+            future.join();
+            fail();
+        } catch (final FanOut.FanOutException e) {
+            assertEquals(IllegalStateException.class, e.getCause().getClass());
+            assertEquals(2, e.partialResult().values().size());
+            assertEquals(1, e.partialResult().failures().size());
+        }
+        assertEquals(3, launched.get());
+    }
+
+    @Test
+    public void testFirstSuccesses() {
+        final List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        final CompletableFuture<FanOut.Result<Integer, Integer>> future = FanOut.<Integer, Integer>of(arg -> {
+            final CompletableFuture<Integer> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }, range(5)).firstSuccesses(2).execute();
+        calls.get(3).complete(3);
+        calls.get(1).completeExceptionally(new IllegalStateException());
+        calls.get(0).complete(0);
+        final FanOut.Result<Integer, Integer> result = future.join();
+        assertEquals(Arrays.asList(3, 0), result.values().stream()
+                .map(Map.Entry::getKey).collect(Collectors.toList()));
+        assertEquals(2, result.pending());
+        assertTrue(calls.get(4).isCancelled());
+    }
+
+    @Test(expected = FanOut.FanOutException.class)
+    public void testFirstSuccessesUnreachable() {
+        FanOut.<Integer, Integer>of(arg -> {
+            final CompletableFuture<Integer> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException());
+            return failed;
+        }, range(3)).firstSuccesses(2).execute().join();
+    }
+
+    @Test
+    public void testRepeatedArgumentsAreAllKept() {
+        final FanOut.Result<Integer, Integer> result = FanOut.<Integer, Integer>of(
+                CompletableFuture::completedFuture, Arrays.asList(1, 1, 2, 1)).execute().join();
+        assertEquals(4, result.values().size());
+        assertEquals(Arrays.asList(1, 1, 2, 1), result.values().stream()
+                .map(Map.Entry::getValue).collect(Collectors.toList()));
+        assertEquals(0, result.pending());
+    }
+
+    @Test
+    public void testThrowingListenerFailsOnlyItsArgument() {
+        final List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        final CompletableFuture<FanOut.Result<Integer, Integer>> future = FanOut.<Integer, Integer>of(arg -> {
+            final CompletableFuture<Integer> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }, range(4)).parallelism(2).onResult((arg, value) -> {
+            if (arg == 1) {
+                throw new IllegalStateException("listener");
+            }
+        }).execute();
+        for (int i = 0; i < 4; i++) {
+            calls.get(i).complete(i);
+        }
+        final FanOut.Result<Integer, Integer> result = future.join();
+        assertEquals(3, result.values().size());
+        assertEquals(1, result.failures().size());
+        assertEquals(Integer.valueOf(1), result.failures().get(0).getKey());
+        assertEquals("listener", result.failures().get(0).getValue().getMessage());
+    }
+
+    private static List<Integer> range(final int size) {
+        return IntStream.range(0, size).boxed().collect(Collectors.toList());
+    }
+
+    interface TestInterface {
+
+        @RequestLine("GET /{id}")
+        CompletableFuture<String> get(@Param("id") String id);
+    }
+}
@@ -0,0 +1,221 @@
+package com.demo.client.completable;
+
+import com.demo.client.feign.completable.CallPriority;
+import com.demo.client.feign.completable.CompletableFeign;
+import com.demo.client.feign.completable.PriorityExecutor;
+import com.demo.client.feign.completable.RateLimiter;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import feign.Feign;
+import feign.RequestLine;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PriorityExecutorTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    private final PriorityExecutor executor = PriorityExecutor.builder()
+            .threads(1)
+            .aging(1, TimeUnit.HOURS)
+            .shedBelow(CallPriority.NORMAL, 2)
+            .build();
+
+    @After
+    public void afterTest() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testHigherPriorityRunsFirst() throws Exception {
+        final CountDownLatch blocker = block();
+        final List<String> order = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(3);
+        executor.execute(() -> {
+            order.add("normal");
+            done.countDown();
+        });
+        executor.withPriority(CallPriority.HIGH).execute(() -> {
+            order.add("high");
+            done.countDown();
+        });
+        PriorityExecutor.callWithPriority(CallPriority.HIGH + 1, () -> {
+            executor.execute(() -> {
+                order.add("override");
+                done.countDown();
+            });
+            return null;
+        });
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("override", "high", "normal"), order);
+    }
+
+    @Test
+    public void testAgingPreventsStarvation() throws Exception {
+        final PriorityExecutor aging = PriorityExecutor.builder()
+                .threads(1).aging(1, TimeUnit.MILLISECONDS).build();
+        try {
+            final CountDownLatch blocker = new CountDownLatch(1);
+            aging.execute(() -> await(blocker));
+            final List<String> order = Collections.synchronizedList(new ArrayList<>());
+            final CountDownLatch done = new CountDownLatch(2);
+            aging.withPriority(CallPriority.LOW).execute(() -> {
+                order.add("low");
+                done.countDown();
+            });
+            Thread.sleep(100);
+            aging.withPriority(CallPriority.HIGH).execute(() -> {
+                order.add("high");
+                done.countDown();
+            });
+            blocker.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("low", "high"), order);
+        } finally {
+            aging.shutdown();
+        }
+    }
+
+    @Test
+    public void testShedLowPriority() throws Exception {
+        final CountDownLatch blocker = block();
+        executor.execute(() -> {});
+        executor.execute(() -> {});
+        try {
+            executor.withPriority(CallPriority.LOW).execute(() -> {});
+            throw new AssertionError("low priority call should be shed");
+        } catch (final RejectedExecutionException expected) {
+            // expected
+        }
+        executor.withPriority(CallPriority.HIGH).execute(() -> {});
+        assertEquals(3, executor.queued());
+        blocker.countDown();
+    }
+
+    @Test
+    public void testAnnotatedMethod() throws Exception {
+        server.enqueue(new MockResponse().setBody("first"));
+        server.enqueue(new MockResponse().setBody("second"));
+        final TestInterface api = CompletableFeign.builder()
+                .executor(executor)
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final CountDownLatch blocker = block();
+        final CompletableFuture<String> normal = api.normal();
+        final CompletableFuture<String> high = api.high();
+        blocker.countDown();
+        assertEquals("first", high.join());
+        assertEquals("second", normal.join());
+        assertEquals("/high", server.takeRequest().getPath());
+        assertEquals("/normal", server.takeRequest().getPath());
+    }
+
+    @Test
+    public void testPriorityCapturedWhenCallIsMade() throws Exception {
+        server.enqueue(new MockResponse().setBody("first"));
+        server.enqueue(new MockResponse().setBody("second"));
+        final RateLimiter limiter = new RateLimiter(10);
+        final TestInterface api = CompletableFeign.builder()
+                .executor(executor)
+                .rateLimiter(Feign.configKey(TestInterface.class, getMethod("low")), limiter)
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        // uses up the burst, so the next low call is submitted later from the scheduler thread
+        limiter.reserve();
+        final CountDownLatch blocker = block();
+        final CompletableFuture<String> normal = api.normal();
+        final CompletableFuture<String> boosted =
+                PriorityExecutor.callWithPriority(CallPriority.HIGH, api::low);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.queued() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        blocker.countDown();
+        assertEquals("first", boosted.join());
+        assertEquals("second", normal.join());
+        assertEquals("/low", server.takeRequest().getPath());
+        assertEquals("/normal", server.takeRequest().getPath());
+    }
+
+    @Test
+    public void testShedCallFailsItsFuture() throws Exception {
+        assertShedCallFails(CompletableFeign.builder());
+    }
+
+    @Test
+    public void testShedCallFailsItsFutureWhenStaged() throws Exception {
+        assertShedCallFails(CompletableFeign.builder().stagedDecoding());
+    }
+
+    private void assertShedCallFails(final CompletableFeign.Builder builder) throws Exception {
+        final TestInterface api = builder
+                .executor(executor)
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final CountDownLatch blocker = block();
+        executor.execute(() -> {});
+        executor.execute(() -> {});
+        final Throwable throwable = api.low().handle((value, ex) -> ex).join();
+        blocker.countDown();
+        assertEquals(CompletionException.class, throwable.getClass());
+        assertEquals(RejectedExecutionException.class, throwable.getCause().getClass());
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private CountDownLatch block() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(blocker);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return blocker;
+    }
+
+    private static Method getMethod(final String name) {
+        try {
+            return TestInterface.class.getDeclaredMethod(name);
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    interface TestInterface {
+
+        @CallPriority(CallPriority.HIGH)
+        @RequestLine("GET /high")
+        CompletableFuture<String> high();
+
+        @RequestLine("GET /normal")
+        CompletableFuture<String> normal();
+
+        @CallPriority(CallPriority.LOW)
+        @RequestLine("GET /low")
+        CompletableFuture<String> low();
+    }
+}
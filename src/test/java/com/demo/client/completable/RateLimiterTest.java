@@ -0,0 +1,163 @@
+package com.demo.client.completable;
+
+import com.demo.client.feign.completable.CompletableFeign;
+import com.demo.client.feign.completable.RateLimiter;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import feign.Feign;
+import feign.FeignException;
+import feign.RequestLine;
+import feign.RetryableException;
+import feign.Retryer;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimiterTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Test
+    public void testReserve() {
+        final RateLimiter limiter = new RateLimiter(1, 2, 10, TimeUnit.SECONDS);
+        assertEquals(0L, limiter.reserve());
+        assertEquals(0L, limiter.reserve());
+        final long waitNanos = limiter.reserve();
+        assertTrue(waitNanos > TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(waitNanos <= TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testMaxWait() {
+        final RateLimiter limiter = new RateLimiter(1, 1, 100, TimeUnit.MILLISECONDS);
+        assertEquals(0L, limiter.reserve());
+        assertEquals(-1L, limiter.reserve());
+    }
+
+    @Test
+    public void testThrottleAndRecover() {
+        final RateLimiter limiter = new RateLimiter(100, 1, 10, TimeUnit.SECONDS);
+        limiter.throttle(2, TimeUnit.SECONDS);
+        assertEquals(50.0, limiter.rate(), 0.001);
+        assertTrue(limiter.reserve() > TimeUnit.SECONDS.toNanos(1));
+        for (int i = 0; i < 10; i++) {
+            limiter.recover();
+        }
+        assertEquals(100.0, limiter.rate(), 0.001);
+    }
+
+    @Test
+    public void testDelayedCall() {
+        server.enqueue(new MockResponse().setBody("first"));
+        server.enqueue(new MockResponse().setBody("second"));
+        final TestInterface api = CompletableFeign.builder()
+                .rateLimiter(new RateLimiter(10))
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final long start = System.nanoTime();
+        final CompletableFuture<String> first = api.get();
+        final CompletableFuture<String> second = api.get();
+        assertEquals("first", first.join());
+        assertEquals("second", second.join());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void testFailFastBeyondDeadline() {
+        server.enqueue(new MockResponse().setBody("first"));
+        final TestInterface api = CompletableFeign.builder()
+                .rateLimiter(Feign.configKey(TestInterface.class, getMethod()),
+                        new RateLimiter(1, 1, 10, TimeUnit.MILLISECONDS))
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("first", api.get().join());
+        final Throwable throwable = api.get().handle((value, ex) -> ex).join();
+        assertEquals(CompletionException.class, throwable.getClass());
+        assertEquals(RejectedExecutionException.class, throwable.getCause().getClass());
+    }
+
+    @Test
+    public void testInheritedMethodLimiter() {
+        server.enqueue(new MockResponse().setBody("first"));
+        final ChildInterface api = CompletableFeign.builder()
+                .rateLimiter(Feign.configKey(ChildInterface.class, getMethod()),
+                        new RateLimiter(1, 1, 10, TimeUnit.MILLISECONDS))
+                .target(ChildInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("first", api.get().join());
+        final Throwable throwable = api.get().handle((value, ex) -> ex).join();
+        assertEquals(CompletionException.class, throwable.getClass());
+        assertEquals(RejectedExecutionException.class, throwable.getCause().getClass());
+    }
+
+    @Test
+    public void testCancelledCallReleasesItsPermit() {
+        server.enqueue(new MockResponse().setBody("ok"));
+        server.enqueue(new MockResponse().setBody("ok"));
+        final TestInterface api = CompletableFeign.builder()
+                .rateLimiter(new RateLimiter(10, 1, 150, TimeUnit.MILLISECONDS))
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final CompletableFuture<String> first = api.get();
+        final CompletableFuture<String> second = api.get();
+        second.cancel(false);
+        // without the refund this call would have to wait 200ms, beyond the 150ms deadline
+        assertEquals("ok", api.get().join());
+        assertEquals("ok", first.join());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testRetryAfter() {
+        server.enqueue(new MockResponse().setResponseCode(429).addHeader("Retry-After", "30"));
+        final RateLimiter limiter = new RateLimiter(100, 1, 1, TimeUnit.SECONDS);
+        final TestInterface api = CompletableFeign.builder()
+                .retryer(Retryer.NEVER_RETRY)
+                .rateLimiter(limiter)
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final Throwable throwable = api.get().handle((value, ex) -> ex).join();
+        assertEquals(CompletionException.class, throwable.getClass());
+        assertEquals(50.0, limiter.rate(), 0.001);
+        assertEquals(-1L, limiter.reserve());
+    }
+
+    @Test
+    public void testRetryAfterWithDefaultRetryer() {
+        server.enqueue(new MockResponse().setResponseCode(429).addHeader("Retry-After", "1"));
+        server.enqueue(new MockResponse().setBody("second"));
+        final TestInterface api = CompletableFeign.builder()
+                .rateLimiter(new RateLimiter(100, 1, 5, TimeUnit.SECONDS))
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final Throwable throwable = api.get().handle((value, ex) -> ex).join();
+        assertEquals(CompletionException.class, throwable.getClass());
+        assertEquals(429, ((FeignException) throwable.getCause()).status());
+        assertFalse(throwable.getCause() instanceof RetryableException);
+        // not resent by the retryer; the next call waits on the limiter instead
+        assertEquals(1, server.getRequestCount());
+        assertEquals("second", api.get().join());
+    }
+
+    private static Method getMethod() {
+        try {
+            return TestInterface.class.getDeclaredMethod("get");
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    interface TestInterface {
+
+        @RequestLine("GET /")
+        CompletableFuture<String> get();
+    }
+
+    interface ChildInterface extends TestInterface {
+    }
+}
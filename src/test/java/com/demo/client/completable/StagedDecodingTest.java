@@ -0,0 +1,174 @@
+package com.demo.client.completable;
+
+import com.demo.client.feign.completable.CompletableFeign;
+import com.demo.client.feign.completable.StageListener;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import feign.FeignException;
+import feign.InvocationHandlerFactory;
+import feign.RequestLine;
+import feign.Response;
+import feign.Retryer;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StagedDecodingTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    private final ExecutorService decodePool = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "test-decode"));
+    private final ExecutorService completionPool = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "test-completion"));
+    private final List<StageListener.Stage> stages = new CopyOnWriteArrayList<>();
+    private final List<String> decodeThreads = new CopyOnWriteArrayList<>();
+
+    @After
+    public void afterTest() {
+        decodePool.shutdown();
+        completionPool.shutdown();
+    }
+
+    @Test
+    public void testStages() {
+        // delayed so the callback below is registered before the call completes
+        server.enqueue(new MockResponse().setBody("response data")
+                .setHeadersDelay(100, TimeUnit.MILLISECONDS));
+        final TestInterface api = builder()
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final String thread = api.get()
+                .thenApply(value -> {
+                    assertEquals("response data", value);
+                    return Thread.currentThread().getName();
+                }).join();
+        assertEquals("test-completion", thread);
+        assertEquals("test-decode", decodeThreads.get(0));
+        assertEquals(StageListener.Stage.NETWORK, stages.get(0));
+        assertEquals(StageListener.Stage.DECODE, stages.get(1));
+    }
+
+    @Test
+    public void testErrorDecoding() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        final TestInterface api = builder()
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final Throwable throwable = api.get().handle((value, ex) -> ex).join();
+        assertEquals(CompletionException.class, throwable.getClass());
+        assertTrue(throwable.getCause() instanceof FeignException);
+        assertEquals(500, ((FeignException) throwable.getCause()).status());
+    }
+
+    @Test
+    public void testDecode404AndResponse() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("missing"));
+        final TestInterface api = builder()
+                .decode404()
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertNull(api.get().join());
+        final Response response = api.response().join();
+        assertEquals(404, response.status());
+        assertEquals("missing", Util.toString(response.body().asReader()));
+    }
+
+    @Test
+    public void testSynchronousMethodsAreNotStaged() {
+        server.enqueue(new MockResponse().setBody("response data"));
+        final TestInterface api = builder()
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("response data", api.plain());
+    }
+
+    @Test
+    public void testRetryableErrorIsRetried() {
+        // ErrorDecoder.Default turns a Retry-After header into a RetryableException
+        server.enqueue(new MockResponse().setResponseCode(503).addHeader("Retry-After", "0"));
+        server.enqueue(new MockResponse().setBody("response data"));
+        final TestInterface api = builder()
+                .retryer(new Retryer.Default(1, 1, 2))
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("response data", api.get().join());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testDecodeFailureIsWrapped() {
+        server.enqueue(new MockResponse().setBody("response data"));
+        final TestInterface api = builder()
+                .decoder((response, type) -> {
+                    throw new IllegalStateException("decoder");
+                })
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        final Throwable throwable = api.get().handle((value, ex) -> ex).join();
+        assertEquals(DecodeException.class, throwable.getCause().getClass());
+        assertEquals("decoder", throwable.getCause().getCause().getMessage());
+    }
+
+    @Test
+    public void testInheritedMethod() {
+        server.enqueue(new MockResponse().setBody("response data"));
+        final ChildInterface api = builder()
+                .target(ChildInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("response data", api.get().join());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCustomInvocationHandlerIsRejected() {
+        builder()
+                .invocationHandlerFactory(new InvocationHandlerFactory.Default())
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCustomFutureFactoryIsRejected() {
+        CompletableFeign.builder()
+                .stagedDecoding()
+                .futureFactory((dispatch, method, args, executor) -> CompletableFuture.completedFuture(null))
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+    }
+
+    private CompletableFeign.Builder builder() {
+        final Decoder decoder = new Decoder.Default();
+        return CompletableFeign.builder()
+                .decoder((response, type) -> {
+                    decodeThreads.add(Thread.currentThread().getName());
+                    return decoder.decode(response, type);
+                })
+                .decodeExecutor(decodePool)
+                .completionExecutor(completionPool)
+                .stageListener((stage, configKey, queuedNanos, runNanos, failure) -> stages.add(stage));
+    }
+
+    interface TestInterface {
+
+        @RequestLine("GET /")
+        CompletableFuture<String> get();
+
+        @RequestLine("GET /")
+        CompletableFuture<Response> response();
+
+        @RequestLine("GET /")
+        String plain();
+    }
+
+    interface ChildInterface extends TestInterface {
+    }
+}
@@ -0,0 +1,159 @@
+package com.demo.client.completable;
+
+import com.demo.client.feign.completable.CompletableFeign;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import feign.Client;
+import feign.Headers;
+import feign.RequestLine;
+import feign.RequestTemplate;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class StreamingBodyTest {
+
+    @Rule
+    public final MockWebServer server = new MockWebServer();
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPathIsSentWithLength() throws Exception {
+        server.enqueue(new MockResponse().setBody("stored"));
+        final Path file = folder.newFile().toPath();
+        Files.write(file, "file data".getBytes(StandardCharsets.UTF_8));
+        assertEquals("stored", api().uploadFile(file).join());
+        final RecordedRequest request = server.takeRequest();
+        assertEquals("9", request.getHeader("Content-Length"));
+        assertEquals("application/octet-stream", request.getHeader("Content-Type"));
+        assertEquals("file data", request.getBody().readUtf8());
+    }
+
+    @Test
+    public void testChannelIsSentFromItsPosition() throws Exception {
+        server.enqueue(new MockResponse().setBody("stored"));
+        final Path file = folder.newFile().toPath();
+        Files.write(file, "skip:channel data".getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(5);
+            assertEquals("stored", api().uploadChannel(channel).join());
+            assertEquals(5, channel.position());
+        }
+        final RecordedRequest request = server.takeRequest();
+        assertEquals("text/plain", request.getHeader("Content-Type"));
+        assertEquals("channel data", request.getBody().readUtf8());
+    }
+
+    @Test
+    public void testStreamIsChunked() throws Exception {
+        server.enqueue(new MockResponse().setBody("stored"));
+        final InputStream in = new ByteArrayInputStream("stream data".getBytes(StandardCharsets.UTF_8));
+        assertEquals("stored", api().uploadStream(in).join());
+        final RecordedRequest request = server.takeRequest();
+        assertNull(request.getHeader("Content-Length"));
+        assertEquals("chunked", request.getHeader("Transfer-Encoding"));
+        assertEquals("stream data", request.getBody().readUtf8());
+    }
+
+    @Test
+    public void testPlainBodiesAreStillEncoded() throws Exception {
+        server.enqueue(new MockResponse().setBody("stored"));
+        assertEquals("stored", api().upload("text data").join());
+        assertEquals("text data", server.takeRequest().getBody().readUtf8());
+    }
+
+    @Test
+    public void testNestedCallDoesNotTakeTheBody() throws Exception {
+        server.enqueue(new MockResponse().setBody("token"));
+        server.enqueue(new MockResponse().setBody("stored"));
+        final Path file = folder.newFile().toPath();
+        Files.write(file, "file data".getBytes(StandardCharsets.UTF_8));
+        final TokenInterface tokens = CompletableFeign.builder()
+                .streamingBodies()
+                .target(TokenInterface.class, "http://localhost:" + server.getPort());
+        final TestInterface api = CompletableFeign.builder()
+                .streamingBodies()
+                .requestInterceptor(template -> template.header("Authorization", tokens.token()))
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        assertEquals("stored", api.uploadFile(file).join());
+        final RecordedRequest token = server.takeRequest();
+        assertEquals("/token", token.getPath());
+        assertEquals(0, token.getBodySize());
+        final RecordedRequest upload = server.takeRequest();
+        assertEquals("token", upload.getHeader("Authorization"));
+        assertEquals("file data", upload.getBody().readUtf8());
+    }
+
+    @Test
+    public void testBufferedFallbackForPlainClients() throws Exception {
+        server.enqueue(new MockResponse().setBody("stored"));
+        final Path file = folder.newFile().toPath();
+        Files.write(file, "skip:channel data".getBytes(StandardCharsets.UTF_8));
+        final List<RequestTemplate> templates = new ArrayList<>();
+        final Client plain = (request, options) -> {
+            templates.add(request.requestTemplate());
+            return new Client.Default(null, null).execute(request, options);
+        };
+        final TestInterface api = CompletableFeign.builder()
+                .streamingBodies()
+                .client(plain)
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(5);
+            assertEquals("stored", api.uploadChannel(channel).join());
+            assertEquals(5, channel.position());
+        }
+        final RecordedRequest request = server.takeRequest();
+        assertEquals("12", request.getHeader("Content-Length"));
+        assertEquals("channel data", request.getBody().readUtf8());
+        assertEquals(1, templates.size());
+        assertNotNull(templates.get(0));
+    }
+
+    private TestInterface api() {
+        return CompletableFeign.builder()
+                .streamingBodies()
+                .target(TestInterface.class, "http://localhost:" + server.getPort());
+    }
+
+    interface TestInterface {
+
+        @RequestLine("POST /")
+        CompletableFuture<String> uploadFile(Path file);
+
+        @Headers("Content-Type: text/plain")
+        @RequestLine("POST /")
+        CompletableFuture<String> uploadChannel(FileChannel channel);
+
+        @RequestLine("POST /")
+        CompletableFuture<String> uploadStream(InputStream in);
+
+        @RequestLine("POST /")
+        CompletableFuture<String> upload(String body);
+    }
+
+    interface TokenInterface {
+
+        @RequestLine("GET /token")
+        String token();
+    }
+}